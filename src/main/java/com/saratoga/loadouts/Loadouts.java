@@ -1,10 +1,12 @@
 package com.saratoga.loadouts;
 
 import com.saratoga.loadouts.command.LoadoutCommand;
+import com.saratoga.loadouts.data.ChangeLogPoller;
 import com.saratoga.loadouts.data.DatabaseManager;
 import com.saratoga.loadouts.data.EditModeManager;
 import com.saratoga.loadouts.data.LoadoutManager;
 import com.saratoga.loadouts.gui.GuiManager;
+import com.saratoga.loadouts.integration.CatalogWatcher;
 import com.saratoga.loadouts.integration.WeaponMechanicsIntegration;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -20,6 +22,8 @@ public final class Loadouts extends JavaPlugin {
     private GuiManager guiManager;
     private WeaponMechanicsIntegration wmIntegration;
     private EditModeManager editModeManager;
+    private ChangeLogPoller changeLogPoller;
+    private CatalogWatcher catalogWatcher;
 
     @Override
     public void onEnable() {
@@ -54,9 +58,33 @@ public final class Loadouts extends JavaPlugin {
 
         // Initialize managers
         this.loadoutManager = new LoadoutManager(this);
+        if (!loadoutManager.replayPendingWrites()) {
+            getLogger().severe("Pending loadout writes could not be written to the database, disabling so they "
+                    + "are not overwritten. They are retried on the next start.");
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
         this.guiManager = new GuiManager(this);
         this.editModeManager = new EditModeManager(this);
 
+        // Reclaim item blobs no longer referenced by any loadout, hourly
+        getServer().getScheduler().runTaskTimerAsynchronously(this, () -> {
+            try {
+                int swept = databaseManager.sweepItemBlobs();
+                if (swept > 0) {
+                    getLogger().info("Removed " + swept + " unused item blobs.");
+                }
+            } catch (Exception e) {
+                getLogger().log(Level.WARNING, "Failed to sweep unused item blobs", e);
+            }
+        }, 20L * 60, 20L * 60 * 60);
+
+        // Pick up loadout changes made by other servers sharing the database
+        if (config.isSyncEnabled()) {
+            this.changeLogPoller = new ChangeLogPoller(this);
+            changeLogPoller.start();
+        }
+
         // Register commands
         LoadoutCommand commandExecutor = new LoadoutCommand(this);
         getCommand("loadout").setExecutor(commandExecutor);
@@ -69,12 +97,18 @@ public final class Loadouts extends JavaPlugin {
         // Delay weapon and attachment scanning to ensure WeaponMechanics has finished
         // loading
         getServer().getScheduler().runTaskLater(this, () -> {
-            wmIntegration.scanWeapons();
-            wmIntegration.scanAttachments();
-            getLogger().info("Loaded " + wmIntegration.getTotalWeaponCount() + " weapons and " +
-                    wmIntegration.getTotalAttachmentCount() + " attachments from WeaponMechanics.");
+            wmIntegration.scan(true, true)
+                    .thenAccept(catalog -> getLogger().info("Loaded " + catalog.getAllWeapons().size()
+                            + " weapons and " + catalog.getAllAttachments().size()
+                            + " attachments from WeaponMechanics."));
         }, 40L);
 
+        // Optionally pick up edited WeaponMechanics files without /loadout syncwm
+        if (config.isCatalogWatchEnabled()) {
+            this.catalogWatcher = new CatalogWatcher(this);
+            catalogWatcher.start();
+        }
+
         getLogger().info("Loadouts plugin enabled. Weapon/attachment scan will complete shortly...");
     }
 
@@ -85,6 +119,22 @@ public final class Loadouts extends JavaPlugin {
             editModeManager.onServerShutdown();
         }
 
+        if (changeLogPoller != null) {
+            changeLogPoller.stop();
+        }
+
+        if (catalogWatcher != null) {
+            catalogWatcher.stop();
+        }
+        if (wmIntegration != null) {
+            wmIntegration.shutdown();
+        }
+
+        // Let queued saves/deletes finish (bounded) before the pool goes away
+        if (loadoutManager != null) {
+            loadoutManager.shutdown(config.getShutdownTimeoutSeconds());
+        }
+
         // Close database connection
         if (databaseManager != null) {
             databaseManager.close();
@@ -23,6 +23,12 @@ public class LoadoutsConfig {
     private String mysqlUsername;
     private String mysqlPassword;
     private String sqliteFile;
+    private int shutdownTimeoutSeconds;
+
+    // Cross-server cache sync
+    private boolean syncEnabled;
+    private int syncPollIntervalTicks;
+    private int syncRetentionMinutes;
 
     // Ammo multipliers
     private final Map<String, Integer> ammoMultipliers = new HashMap<>();
@@ -44,11 +50,17 @@ public class LoadoutsConfig {
     // General settings
     private int maxLoadouts;
 
+    // WeaponMechanics folder watching
+    private boolean catalogWatchEnabled;
+    private long catalogWatchDebounceMillis;
+
     // GUI settings
     private String categoryMenuTitle;
     private int categoryMenuSize;
     private String weaponSelectTitle;
     private int itemsPerPage;
+    private double clicksPerSecond;
+    private int clickBurst;
 
     // Messages
     private final Map<String, String> messages = new HashMap<>();
@@ -66,6 +78,7 @@ public class LoadoutsConfig {
     private String permEditGlobal;
     private String permReload;
     private String permSyncwm;
+    private String permStats;
 
     public LoadoutsConfig(Loadouts plugin) {
         this.plugin = plugin;
@@ -84,6 +97,10 @@ public class LoadoutsConfig {
         mysqlUsername = config.getString("database.mysql.username", "root");
         mysqlPassword = config.getString("database.mysql.password", "");
         sqliteFile = config.getString("database.sqlite.file", "loadouts.db");
+        shutdownTimeoutSeconds = config.getInt("database.shutdown-timeout-seconds", 10);
+        syncEnabled = config.getBoolean("database.sync.enabled", false);
+        syncPollIntervalTicks = Math.max(1, config.getInt("database.sync.poll-interval-ticks", 40));
+        syncRetentionMinutes = Math.max(1, config.getInt("database.sync.retention-minutes", 60));
 
         // Ammo multipliers
         ammoMultipliers.clear();
@@ -157,6 +174,10 @@ public class LoadoutsConfig {
         // General settings
         maxLoadouts = config.getInt("max-loadouts", 5);
 
+        // WeaponMechanics folder watching
+        catalogWatchEnabled = config.getBoolean("catalog-watch.enabled", false);
+        catalogWatchDebounceMillis = Math.max(100, config.getLong("catalog-watch.debounce-millis", 2000));
+
         // Attachment slots configuration
         attachmentSlots.clear();
         ConfigurationSection attachSection = config.getConfigurationSection("attachment-slots");
@@ -179,6 +200,8 @@ public class LoadoutsConfig {
         categoryMenuSize = config.getInt("gui.category-menu.size", 54);
         weaponSelectTitle = config.getString("gui.weapon-select.title", "&8&l%category% を選択");
         itemsPerPage = config.getInt("gui.weapon-select.items-per-page", 45);
+        clicksPerSecond = Math.max(1, config.getDouble("gui.click-limit.per-second", 8));
+        clickBurst = Math.max(1, config.getInt("gui.click-limit.burst", 12));
 
         // Messages
         messages.clear();
@@ -202,6 +225,7 @@ public class LoadoutsConfig {
         permEditGlobal = config.getString("permissions.edit-global", "loadouts.admin.global");
         permReload = config.getString("permissions.reload", "loadouts.admin.reload");
         permSyncwm = config.getString("permissions.syncwm", "loadouts.admin.syncwm");
+        permStats = config.getString("permissions.stats", "loadouts.admin.stats");
     }
 
     // Message helper methods
@@ -255,6 +279,22 @@ public class LoadoutsConfig {
         return sqliteFile;
     }
 
+    public int getShutdownTimeoutSeconds() {
+        return shutdownTimeoutSeconds;
+    }
+
+    public boolean isSyncEnabled() {
+        return syncEnabled;
+    }
+
+    public int getSyncPollIntervalTicks() {
+        return syncPollIntervalTicks;
+    }
+
+    public int getSyncRetentionMinutes() {
+        return syncRetentionMinutes;
+    }
+
     public int getAmmoMultiplier(String category) {
         return ammoMultipliers.getOrDefault(category, defaultAmmoMultiplier);
     }
@@ -281,6 +321,14 @@ public class LoadoutsConfig {
         return maxLoadouts;
     }
 
+    public boolean isCatalogWatchEnabled() {
+        return catalogWatchEnabled;
+    }
+
+    public long getCatalogWatchDebounceMillis() {
+        return catalogWatchDebounceMillis;
+    }
+
     public Map<String, AttachmentSlotConfig> getAttachmentSlots() {
         return Collections.unmodifiableMap(attachmentSlots);
     }
@@ -305,6 +353,11 @@ public class LoadoutsConfig {
         return defaultItemAmount;
     }
 
+    public AmountSettings getAmountSettings() {
+        return new AmountSettings(Map.copyOf(ammoMultipliers), defaultAmmoMultiplier, Map.copyOf(itemAmounts),
+                defaultItemAmount);
+    }
+
     public String getCategoryMenuTitle() {
         return categoryMenuTitle;
     }
@@ -321,6 +374,14 @@ public class LoadoutsConfig {
         return itemsPerPage;
     }
 
+    public double getClicksPerSecond() {
+        return clicksPerSecond;
+    }
+
+    public int getClickBurst() {
+        return clickBurst;
+    }
+
     // Permission getters
     public String getPermUseMenu() {
         return permUseMenu;
@@ -370,7 +431,35 @@ public class LoadoutsConfig {
         return permSyncwm;
     }
 
+    public String getPermStats() {
+        return permStats;
+    }
+
     // Inner classes for configuration data
+    /**
+     * Immutable copy of the ammo multipliers and item amounts, for reading off
+     * the main thread while the config may be reloaded
+     */
+    public record AmountSettings(Map<String, Integer> ammoMultipliers, int defaultAmmoMultiplier,
+            Map<String, Integer> itemAmounts, int defaultItemAmount) {
+
+        public int ammoMultiplier(String category) {
+            return category != null ? ammoMultipliers.getOrDefault(category, defaultAmmoMultiplier)
+                    : defaultAmmoMultiplier;
+        }
+
+        /**
+         * Weapon-specific amount first, then category, then default
+         */
+        public int itemAmount(String weaponTitle, String category) {
+            Integer amount = itemAmounts.get(weaponTitle);
+            if (amount == null && category != null) {
+                amount = itemAmounts.get(category);
+            }
+            return amount != null ? amount : defaultItemAmount;
+        }
+    }
+
     public record SlotConfig(String key, String displayName, Material icon, List<String> allowedCategories) {
         public Component getDisplayNameComponent() {
             return LegacyComponentSerializer.legacyAmpersand().deserialize(displayName);
@@ -5,6 +5,10 @@ import com.saratoga.loadouts.LoadoutsConfig;
 import com.saratoga.loadouts.data.Loadout;
 import com.saratoga.loadouts.data.LoadoutManager;
 import com.saratoga.loadouts.gui.GuiManager;
+import com.saratoga.loadouts.gui.LoadoutIconCache;
+import com.saratoga.loadouts.integration.CatalogSearchIndex;
+import com.saratoga.loadouts.integration.ItemTemplateCache;
+import com.saratoga.loadouts.integration.WeaponCatalog;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.command.Command;
@@ -31,6 +35,10 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
     // For delete confirmation
     private final Map<UUID, String> pendingDeletes = new HashMap<>();
 
+    // Result sizes for /loadout search and its tab completion
+    private static final int SEARCH_LIMIT = 10;
+    private static final int COMPLETION_LIMIT = 50;
+
     public LoadoutCommand(Loadouts plugin) {
         this.plugin = plugin;
         this.loadoutManager = plugin.getLoadoutManager();
@@ -157,7 +165,22 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
                     player.sendMessage(config.getMessageComponent("no-permission"));
                     return true;
                 }
-                handleSyncWm(sender);
+                handleSyncWm(sender, args);
+            }
+            case "search" -> {
+                if (sender instanceof Player player && !player.hasPermission(config.getPermUseMenu())) {
+                    player.sendMessage(config.getMessageComponent("no-permission"));
+                    return true;
+                }
+                handleSearch(sender, args);
+            }
+            case "stats" -> {
+                // Admin command - check permission
+                if (sender instanceof Player player && !player.hasPermission(config.getPermStats())) {
+                    player.sendMessage(config.getMessageComponent("no-permission"));
+                    return true;
+                }
+                handleStats(sender);
             }
             default -> sender.sendMessage(config.getMessageComponent("invalid-usage"));
         }
@@ -527,10 +550,18 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
                             Component.text("グローバルスロット " + slotNumber + " にはロードアウトがありません。", NamedTextColor.RED));
                     return;
                 }
-                loadout.setDisplayName(newName);
-                loadoutManager.saveLoadout(loadout);
-                player.sendMessage(Component.text("[Global] スロット " + slotNumber + " を \"" + newName + "\" に名前変更しました。",
-                        NamedTextColor.GOLD));
+                String displayName = newName;
+                loadoutManager.renameLoadout(loadout, displayName)
+                        .thenAccept(success -> {
+                            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                                if (success) {
+                                    player.sendMessage(Component.text("[Global] スロット " + slotNumber + " を \""
+                                            + displayName + "\" に名前変更しました。", NamedTextColor.GOLD));
+                                } else {
+                                    player.sendMessage(Component.text("名前の変更に失敗しました。", NamedTextColor.RED));
+                                }
+                            });
+                        });
             } catch (NumberFormatException e) {
                 player.sendMessage(Component.text("無効なスロット番号です: " + args[2], NamedTextColor.RED));
             }
@@ -554,10 +585,18 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
                     player.sendMessage(Component.text("スロット " + slotNumber + " にはロードアウトがありません。", NamedTextColor.RED));
                     return;
                 }
-                loadout.setDisplayName(newName);
-                loadoutManager.saveLoadout(loadout);
-                player.sendMessage(Component.text("スロット " + slotNumber + " を \"" + newName + "\" に名前変更しました。",
-                        NamedTextColor.GREEN));
+                String displayName = newName;
+                loadoutManager.renameLoadout(loadout, displayName)
+                        .thenAccept(success -> {
+                            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                                if (success) {
+                                    player.sendMessage(Component.text("スロット " + slotNumber + " を \"" + displayName
+                                            + "\" に名前変更しました。", NamedTextColor.GREEN));
+                                } else {
+                                    player.sendMessage(Component.text("名前の変更に失敗しました。", NamedTextColor.RED));
+                                }
+                            });
+                        });
             } catch (NumberFormatException e) {
                 player.sendMessage(Component.text("無効なスロット番号です: " + args[1], NamedTextColor.RED));
             }
@@ -573,7 +612,8 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        plugin.reloadConfig();
+        config.reload();
+        guiManager.reloadTemplates();
         plugin.getWmIntegration().scanWeapons();
         loadoutManager.clearAllCaches();
 
@@ -581,27 +621,129 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
     }
 
     /**
-     * /loadout syncwm
+     * /loadout syncwm [bench [rounds]]
      * Re-sync weapon and attachment list from WeaponMechanics
      */
-    private void handleSyncWm(CommandSender sender) {
+    private void handleSyncWm(CommandSender sender, String[] args) {
+        if (args.length >= 2 && args[1].equalsIgnoreCase("bench")) {
+            handleParserBenchmark(sender, args);
+            return;
+        }
+
         sender.sendMessage(Component.text("WeaponMechanicsから武器・アタッチメントリストを再取得中...", NamedTextColor.YELLOW));
 
-        // Re-scan weapons and attachments
-        plugin.getWmIntegration().scanWeapons();
-        plugin.getWmIntegration().scanAttachments();
+        // Re-scan weapons and attachments (off the main thread, reported once published)
+        plugin.getWmIntegration().scan(true, true)
+                .thenAccept(catalog -> {
+                    int weaponCount = catalog.getAllWeapons().size();
+                    int attachmentCount = catalog.getAllAttachments().size();
+
+                    sender.sendMessage(Component.text("同期完了: " + weaponCount + "個の武器、" + attachmentCount
+                            + "個のアタッチメント", NamedTextColor.GREEN));
+
+                    // Log category breakdown
+                    for (Map.Entry<String, java.util.List<String>> entry : catalog.getCategorizedWeapons()
+                            .entrySet()) {
+                        plugin.getLogger().info("Category '" + entry.getKey() + "': " + entry.getValue().size()
+                                + " weapons");
+                    }
+                });
+    }
+
+    /**
+     * /loadout syncwm bench [rounds]
+     * Compare the streaming YAML extractor against full parsing
+     */
+    private void handleParserBenchmark(CommandSender sender, String[] args) {
+        int rounds = 5;
+        if (args.length >= 3) {
+            try {
+                rounds = Math.max(1, Math.min(100, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(Component.text("回数は数字で指定してください。", NamedTextColor.RED));
+                return;
+            }
+        }
+
+        sender.sendMessage(Component.text("YAMLパーサーのベンチマークを実行中...", NamedTextColor.YELLOW));
+        plugin.getWmIntegration().benchmarkParsers(rounds).whenComplete((result, error) -> {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (error != null) {
+                    plugin.getLogger().log(java.util.logging.Level.WARNING, "Parser benchmark failed", error);
+                    sender.sendMessage(Component.text("ベンチマークに失敗しました。", NamedTextColor.RED));
+                    return;
+                }
+                sender.sendMessage(Component.text(String.format(
+                        "%dファイル x %d回: ストリーミング %.1fms / フル解析 %.1fms (フォールバック %d, 不一致 %d)",
+                        result.files(), result.rounds(), result.streamingNanos() / 1_000_000.0,
+                        result.fullNanos() / 1_000_000.0, result.fallbacks(), result.mismatches()),
+                        result.mismatches() == 0 ? NamedTextColor.GREEN : NamedTextColor.GOLD));
+            });
+        });
+    }
 
-        int weaponCount = plugin.getWmIntegration().getTotalWeaponCount();
-        int attachmentCount = plugin.getWmIntegration().getTotalAttachmentCount();
+    /**
+     * /loadout search <query>
+     * Find weapon and attachment IDs by prefix or part of the name
+     */
+    private void handleSearch(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage(Component.text("使用法: /loadout search <武器名/アタッチメント名>", NamedTextColor.RED));
+            return;
+        }
 
-        sender.sendMessage(Component.text("同期完了: " + weaponCount + "個の武器、" + attachmentCount + "個のアタッチメント",
-                NamedTextColor.GREEN));
+        String query = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        WeaponCatalog catalog = plugin.getWmIntegration().getCatalog();
+        CatalogSearchIndex index = catalog.getSearchIndex();
+        List<CatalogSearchIndex.Entry> weapons = index.search(query, CatalogSearchIndex.Kind.WEAPON, SEARCH_LIMIT);
+        List<CatalogSearchIndex.Entry> attachments = index.search(query, CatalogSearchIndex.Kind.ATTACHMENT,
+                SEARCH_LIMIT);
 
-        // Log category breakdown
-        for (Map.Entry<String, java.util.List<String>> entry : plugin.getWmIntegration().getCategorizedWeapons()
-                .entrySet()) {
-            plugin.getLogger().info("Category '" + entry.getKey() + "': " + entry.getValue().size() + " weapons");
+        if (weapons.isEmpty() && attachments.isEmpty()) {
+            sender.sendMessage(Component.text("\"" + query + "\" に一致するものはありません。", NamedTextColor.YELLOW));
+            return;
         }
+
+        sender.sendMessage(Component.text("--- 検索結果: " + query + " ---", NamedTextColor.GOLD));
+        for (CatalogSearchIndex.Entry entry : weapons) {
+            sender.sendMessage(Component.text("武器 ", NamedTextColor.GRAY)
+                    .append(Component.text(entry.id(), NamedTextColor.YELLOW))
+                    .append(Component.text(" (" + catalog.getWeaponCategory(entry.id()) + ")", NamedTextColor.GRAY)));
+        }
+        for (CatalogSearchIndex.Entry entry : attachments) {
+            sender.sendMessage(Component.text("アタッチメント ", NamedTextColor.GRAY)
+                    .append(Component.text(entry.id(), NamedTextColor.AQUA))
+                    .append(Component.text(" (" + catalog.getAttachmentCategory(entry.id()) + ")",
+                            NamedTextColor.GRAY)));
+        }
+    }
+
+    /**
+     * /loadout stats
+     * Show cache and write queue statistics
+     */
+    private void handleStats(CommandSender sender) {
+        ItemTemplateCache templates = plugin.getWmIntegration().getWeaponTemplates();
+        sender.sendMessage(Component.text("--- キャッシュ統計 ---", NamedTextColor.GOLD));
+        sender.sendMessage(formatCacheStats("武器テンプレート", templates.size(), templates.getHits(),
+                templates.getMisses()));
+        ItemTemplateCache attachments = plugin.getWmIntegration().getAttachmentTemplates();
+        sender.sendMessage(formatCacheStats("アタッチメントテンプレート", attachments.size(), attachments.getHits(),
+                attachments.getMisses()));
+        ItemTemplateCache ammo = plugin.getWmIntegration().getAmmoTemplates();
+        sender.sendMessage(formatCacheStats("弾薬テンプレート", ammo.size(), ammo.getHits(), ammo.getMisses()));
+        LoadoutIconCache loadoutIcons = guiManager.getLoadoutIcons();
+        sender.sendMessage(formatCacheStats("ロードアウトアイコン", loadoutIcons.size(), loadoutIcons.getHits(),
+                loadoutIcons.getMisses()));
+        sender.sendMessage(Component.text(String.format("書き込み待ち: %d件 (%d人)",
+                loadoutManager.getPendingWriteCount(), loadoutManager.getWritingOwnerCount()), NamedTextColor.YELLOW));
+    }
+
+    private Component formatCacheStats(String name, int size, long hits, long misses) {
+        long total = hits + misses;
+        double hitRate = total == 0 ? 0 : hits * 100.0 / total;
+        return Component.text(String.format("%s: %d件 / ヒット %d / ミス %d (ヒット率 %.1f%%)", name, size, hits,
+                misses, hitRate), NamedTextColor.YELLOW);
     }
 
     @Override
@@ -611,7 +753,10 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
             // Console gets all commands
             if (args.length == 1) {
                 return filterStartsWith(args[0],
-                        Arrays.asList("open", "edit", "reload", "syncwm"));
+                        Arrays.asList("open", "edit", "reload", "syncwm", "stats", "search"));
+            }
+            if (args.length == 2 && args[0].equalsIgnoreCase("search")) {
+                return completeCatalogIds(args[1]);
             }
             return Collections.emptyList();
         }
@@ -624,6 +769,7 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
             if (player.hasPermission(config.getPermUseMenu())) {
                 available.add("menu");
                 available.add("open");
+                available.add("search");
             }
             if (player.hasPermission(config.getPermEditLoadout())) {
                 available.add("edit");
@@ -654,6 +800,9 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
             if (player.hasPermission(config.getPermSyncwm())) {
                 available.add("syncwm");
             }
+            if (player.hasPermission(config.getPermStats())) {
+                available.add("stats");
+            }
 
             return filterStartsWith(args[0], available);
         }
@@ -663,11 +812,29 @@ public class LoadoutCommand implements CommandExecutor, TabCompleter {
             if (subCommand.equals("edit") || subCommand.equals("give") || subCommand.equals("delete")) {
                 return filterStartsWith(args[1], Arrays.asList("1", "2", "3", "4", "5"));
             }
+            if (subCommand.equals("syncwm") && player.hasPermission(config.getPermSyncwm())) {
+                return filterStartsWith(args[1], List.of("bench"));
+            }
+            if (subCommand.equals("search") && player.hasPermission(config.getPermUseMenu())) {
+                return completeCatalogIds(args[1]);
+            }
         }
 
         return Collections.emptyList();
     }
 
+    // Weapon IDs first, then attachment IDs, from the catalog's search index
+    private List<String> completeCatalogIds(String prefix) {
+        CatalogSearchIndex index = plugin.getWmIntegration().getCatalog().getSearchIndex();
+        List<String> result = new ArrayList<>(
+                index.completeIds(prefix, CatalogSearchIndex.Kind.WEAPON, COMPLETION_LIMIT));
+        if (result.size() < COMPLETION_LIMIT) {
+            result.addAll(index.completeIds(prefix, CatalogSearchIndex.Kind.ATTACHMENT,
+                    COMPLETION_LIMIT - result.size()));
+        }
+        return result;
+    }
+
     private List<String> filterStartsWith(String prefix, List<String> options) {
         String lowerPrefix = prefix.toLowerCase();
         List<String> result = new ArrayList<>();
@@ -0,0 +1,72 @@
+package com.saratoga.loadouts.data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Position of {@link ChangeLogPoller} in the change log. Change IDs are
+ * handed out in order but may commit out of order, so a polled batch can skip
+ * an ID; changes past such a gap are applied once as they show up, and the
+ * gap is given up on after a grace period.
+ */
+final class ChangeCursor {
+
+    private final long gapGraceMillis;
+
+    // Every change up to and including the position has been applied
+    private long position;
+    // Changes past a gap that were already applied
+    private final Set<Long> appliedAhead = new HashSet<>();
+    private long gapSince = -1; // -1 while there is no gap
+
+    ChangeCursor(long gapGraceMillis) {
+        this.gapGraceMillis = gapGraceMillis;
+    }
+
+    long getPosition() {
+        return position;
+    }
+
+    void reset(long position) {
+        this.position = position;
+        appliedAhead.clear();
+        gapSince = -1;
+    }
+
+    /**
+     * Move past a batch of changes (ascending IDs, all past the position) and
+     * return the ones not applied before
+     */
+    List<DatabaseManager.LoadoutChange> advance(List<DatabaseManager.LoadoutChange> changes, long nowMillis) {
+        List<DatabaseManager.LoadoutChange> toApply = new ArrayList<>();
+        boolean contiguous = true;
+        for (DatabaseManager.LoadoutChange change : changes) {
+            if (contiguous && change.id() == position + 1) {
+                position = change.id();
+                if (!appliedAhead.remove(change.id())) {
+                    toApply.add(change);
+                }
+                continue;
+            }
+
+            contiguous = false;
+            if (appliedAhead.add(change.id())) {
+                toApply.add(change);
+            }
+        }
+
+        if (appliedAhead.isEmpty()) {
+            gapSince = -1;
+        } else if (gapSince < 0) {
+            gapSince = nowMillis;
+        } else if (nowMillis - gapSince > gapGraceMillis) {
+            // Nothing showed up for the gap, it was a rolled back transaction
+            position = appliedAhead.stream().mapToLong(Long::longValue).max().orElse(position);
+            appliedAhead.clear();
+            gapSince = -1;
+        }
+        return toApply;
+    }
+}
@@ -0,0 +1,101 @@
+package com.saratoga.loadouts.data;
+
+import com.saratoga.loadouts.Loadouts;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Polls the loadout_changes table for saves/deletes made by other servers and
+ * refreshes the affected cache entries. Each poll is an indexed range scan
+ * past the last change already applied.
+ */
+public class ChangeLogPoller {
+
+    private static final int BATCH_SIZE = 500;
+
+    // A missing ID may belong to a transaction that has not committed yet, so
+    // the cursor waits this long before skipping it (rolled back IDs never show)
+    private static final long GAP_GRACE_MILLIS = 10_000;
+
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Loadouts plugin;
+    private final DatabaseManager databaseManager;
+    private final LoadoutManager loadoutManager;
+
+    private final ChangeCursor cursor = new ChangeCursor(GAP_GRACE_MILLIS);
+    private long lastPrune = 0;
+
+    private BukkitTask task;
+
+    public ChangeLogPoller(Loadouts plugin) {
+        this.plugin = plugin;
+        this.databaseManager = plugin.getDatabaseManager();
+        this.loadoutManager = plugin.getLoadoutManager();
+    }
+
+    /**
+     * Start polling from the current end of the change log
+     */
+    public void start() {
+        try {
+            cursor.reset(databaseManager.getLatestChangeId());
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read loadout change log, starting from the beginning", e);
+            cursor.reset(0);
+        }
+
+        long interval = plugin.getLoadoutsConfig().getSyncPollIntervalTicks();
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::poll, interval, interval);
+        plugin.getLogger().info("Cross-server loadout sync enabled (server id " + databaseManager.getServerId() + ")");
+    }
+
+    /**
+     * Stop polling
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private synchronized void poll() {
+        try {
+            List<DatabaseManager.LoadoutChange> changes =
+                    databaseManager.getChangesSince(cursor.getPosition(), BATCH_SIZE);
+            for (DatabaseManager.LoadoutChange change : cursor.advance(changes, System.currentTimeMillis())) {
+                apply(change);
+            }
+
+            pruneIfDue();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to poll loadout change log", e);
+        }
+    }
+
+    private void apply(DatabaseManager.LoadoutChange change) {
+        if (change.serverId().equals(databaseManager.getServerId())) {
+            return; // Our own write, the cache already has it
+        }
+        loadoutManager.refreshCachedLoadout(change.playerUUID(), change.name());
+    }
+
+    private void pruneIfDue() throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < PRUNE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPrune = now;
+
+        long retention = TimeUnit.MINUTES.toMillis(plugin.getLoadoutsConfig().getSyncRetentionMinutes());
+        int pruned = databaseManager.pruneChanges(now - retention);
+        if (pruned > 0) {
+            plugin.getLogger().fine("Pruned " + pruned + " old loadout change rows");
+        }
+    }
+}
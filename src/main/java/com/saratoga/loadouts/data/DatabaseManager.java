@@ -12,6 +12,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -25,6 +27,28 @@ public class DatabaseManager {
     private HikariDataSource dataSource;
     private boolean useMysql;
 
+    // Change log for cross-server cache invalidation
+    public static final String CHANGE_SAVE = "SAVE";
+    public static final String CHANGE_DELETE = "DELETE";
+    private final String serverId = UUID.randomUUID().toString();
+    private boolean changeLogEnabled;
+
+    // A save refreshes a blob's last use at most this often, so shared blobs are
+    // not rewritten (and locked) by every save that contains them
+    private static final long BLOB_TOUCH_INTERVAL_MILLIS = 24 * 60 * 60 * 1000L;
+    // Unreferenced item blobs used more recently than this are kept, a save may be
+    // about to use them. Must exceed the touch interval.
+    private static final long BLOB_SWEEP_GRACE_MILLIS = 2 * BLOB_TOUCH_INTERVAL_MILLIS;
+
+    // SQLite primary result code of constraint failures (extended codes keep it in the low byte)
+    private static final int SQLITE_CONSTRAINT = 19;
+
+    /**
+     * A row of the loadout_changes table
+     */
+    public record LoadoutChange(long id, UUID playerUUID, String name, String changeType, String serverId) {
+    }
+
     public DatabaseManager(Loadouts plugin) {
         this.plugin = plugin;
     }
@@ -35,6 +59,7 @@ public class DatabaseManager {
     public void initialize() throws SQLException {
         LoadoutsConfig config = plugin.getLoadoutsConfig();
         useMysql = config.getDatabaseType().equalsIgnoreCase("mysql");
+        changeLogEnabled = config.isSyncEnabled();
 
         HikariConfig hikariConfig = new HikariConfig();
 
@@ -71,6 +96,9 @@ public class DatabaseManager {
         String createItemsTable;
         String createSlotsTable;
         String createAttachmentsTable;
+        String createChangesTable;
+        String createChangesIndex = null;
+        String createBlobsTable;
 
         if (useMysql) {
             createLoadoutsTable = """
@@ -120,6 +148,26 @@ public class DatabaseManager {
                         UNIQUE KEY unique_loadout_attachment (loadout_id, slot_key)
                     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
                     """;
+
+            createChangesTable = """
+                    CREATE TABLE IF NOT EXISTS loadout_changes (
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        player_uuid VARCHAR(36) NOT NULL,
+                        name VARCHAR(64) NOT NULL,
+                        change_type VARCHAR(16) NOT NULL,
+                        server_id VARCHAR(36) NOT NULL,
+                        changed_at BIGINT NOT NULL,
+                        INDEX idx_changed_at (changed_at)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+                    """;
+
+            createBlobsTable = """
+                    CREATE TABLE IF NOT EXISTS item_blobs (
+                        hash CHAR(64) PRIMARY KEY,
+                        data MEDIUMBLOB NOT NULL,
+                        last_used BIGINT NOT NULL
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+                    """;
         } else {
             createLoadoutsTable = """
                     CREATE TABLE IF NOT EXISTS loadouts (
@@ -167,6 +215,26 @@ public class DatabaseManager {
                         UNIQUE(loadout_id, slot_key)
                     )
                     """;
+
+            createChangesTable = """
+                    CREATE TABLE IF NOT EXISTS loadout_changes (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        player_uuid TEXT NOT NULL,
+                        name TEXT NOT NULL,
+                        change_type TEXT NOT NULL,
+                        server_id TEXT NOT NULL,
+                        changed_at INTEGER NOT NULL
+                    )
+                    """;
+            createChangesIndex = "CREATE INDEX IF NOT EXISTS idx_changes_changed_at ON loadout_changes(changed_at)";
+
+            createBlobsTable = """
+                    CREATE TABLE IF NOT EXISTS item_blobs (
+                        hash TEXT PRIMARY KEY,
+                        data BLOB NOT NULL,
+                        last_used INTEGER NOT NULL
+                    )
+                    """;
         }
 
         try (Connection conn = getConnection();
@@ -175,6 +243,11 @@ public class DatabaseManager {
             stmt.execute(createSlotsTable);
             stmt.execute(createItemsTable);
             stmt.execute(createAttachmentsTable);
+            stmt.execute(createChangesTable);
+            if (createChangesIndex != null) {
+                stmt.execute(createChangesIndex);
+            }
+            stmt.execute(createBlobsTable);
 
             // Migration: Add display_name column if it doesn't exist
             try {
@@ -187,6 +260,35 @@ public class DatabaseManager {
             } catch (SQLException e) {
                 // Column already exists - ignore
             }
+
+            // Migration: Add version column for optimistic concurrency
+            try {
+                if (useMysql) {
+                    stmt.execute("ALTER TABLE loadouts ADD COLUMN version INT NOT NULL DEFAULT 1");
+                } else {
+                    stmt.execute("ALTER TABLE loadouts ADD COLUMN version INTEGER NOT NULL DEFAULT 1");
+                }
+                plugin.getLogger().info("Added version column to loadouts table");
+            } catch (SQLException e) {
+                // Column already exists - ignore
+            }
+
+            // Migration: Reference item data by content hash (rows without one keep inline item_data)
+            try {
+                if (useMysql) {
+                    stmt.execute("ALTER TABLE loadout_items ADD COLUMN blob_hash CHAR(64) DEFAULT NULL");
+                } else {
+                    stmt.execute("ALTER TABLE loadout_items ADD COLUMN blob_hash TEXT DEFAULT NULL");
+                }
+                plugin.getLogger().info("Added blob_hash column to loadout_items table");
+            } catch (SQLException e) {
+                // Column already exists - ignore
+            }
+            try {
+                stmt.execute("CREATE INDEX idx_items_blob_hash ON loadout_items(blob_hash)");
+            } catch (SQLException e) {
+                // Index already exists - ignore
+            }
         }
     }
 
@@ -198,36 +300,48 @@ public class DatabaseManager {
     }
 
     /**
-     * Save a loadout to the database
+     * Save a loadout to the database.
+     * Existing rows are only updated if their version still matches the loadout's
+     * version, otherwise a LoadoutConflictException is thrown and nothing is
+     * written. On success the loadout's version is advanced.
      */
     public void saveLoadout(Loadout loadout) throws SQLException {
         try (Connection conn = getConnection()) {
             conn.setAutoCommit(false);
             try {
-                // Insert/update loadout
+                // Insert/update loadout (compare-and-set on version)
                 int loadoutId;
+                int newVersion;
                 if (loadout.isSaved()) {
                     loadoutId = loadout.getId();
+                    newVersion = loadout.getVersion() + 1;
                     try (PreparedStatement stmt = conn.prepareStatement(
-                            "UPDATE loadouts SET updated_at = ?, display_name = ? WHERE id = ?")) {
+                            "UPDATE loadouts SET updated_at = ?, display_name = ?, version = ? WHERE id = ? AND version = ?")) {
                         stmt.setLong(1, loadout.getUpdatedAt());
                         stmt.setString(2, loadout.getDisplayName());
-                        stmt.setInt(3, loadoutId);
-                        stmt.executeUpdate();
+                        stmt.setInt(3, newVersion);
+                        stmt.setInt(4, loadoutId);
+                        stmt.setInt(5, loadout.getVersion());
+                        if (stmt.executeUpdate() == 0) {
+                            throw new LoadoutConflictException(loadout.getPlayerUUID(), loadout.getName(),
+                                    loadout.getVersion());
+                        }
                     }
                 } else {
-                    String upsertWithDisplay = useMysql
-                            ? "INSERT INTO loadouts (player_uuid, name, created_at, updated_at, display_name) VALUES (?, ?, ?, ?, ?) "
-                                    +
-                                    "ON DUPLICATE KEY UPDATE updated_at = VALUES(updated_at), display_name = VALUES(display_name)"
-                            : "INSERT OR REPLACE INTO loadouts (player_uuid, name, created_at, updated_at, display_name) VALUES (?, ?, ?, ?, ?)";
-                    try (PreparedStatement stmt = conn.prepareStatement(upsertWithDisplay,
-                            Statement.RETURN_GENERATED_KEYS)) {
+                    // A row for this name appearing meanwhile means another server created it
+                    if (getLoadoutId(conn, loadout.getPlayerUUID(), loadout.getName()) != -1) {
+                        throw new LoadoutConflictException(loadout.getPlayerUUID(), loadout.getName(), 0);
+                    }
+
+                    newVersion = 1;
+                    String insert = "INSERT INTO loadouts (player_uuid, name, created_at, updated_at, display_name, version) VALUES (?, ?, ?, ?, ?, ?)";
+                    try (PreparedStatement stmt = conn.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS)) {
                         stmt.setString(1, loadout.getPlayerUUID().toString());
                         stmt.setString(2, loadout.getName());
                         stmt.setLong(3, loadout.getCreatedAt());
                         stmt.setLong(4, loadout.getUpdatedAt());
                         stmt.setString(5, loadout.getDisplayName());
+                        stmt.setInt(6, newVersion);
                         stmt.executeUpdate();
 
                         // Get generated ID or existing ID
@@ -238,6 +352,12 @@ public class DatabaseManager {
                                 loadoutId = getLoadoutId(conn, loadout.getPlayerUUID(), loadout.getName());
                             }
                         }
+                    } catch (SQLException e) {
+                        if (!isUniqueViolation(e)) {
+                            throw e;
+                        }
+                        // Lost the race against another server inserting the same name
+                        throw new LoadoutConflictException(loadout.getPlayerUUID(), loadout.getName(), 0);
                     }
                     loadout.setId(loadoutId);
                 }
@@ -286,17 +406,29 @@ public class DatabaseManager {
                     }
                 }
 
-                // Insert final items
+                // Insert final items (data goes to item_blobs, rows only reference it)
                 if (loadout.hasFinalItems()) {
-                    String insertItem = "INSERT INTO loadout_items (loadout_id, slot_index, item_data) VALUES (?, ?, ?)";
+                    List<ItemStack> items = loadout.getFinalItems();
+                    String[] hashes = new String[items.size()];
+                    Map<String, byte[]> blobs = new LinkedHashMap<>();
+                    for (int i = 0; i < items.size(); i++) {
+                        ItemStack item = items.get(i);
+                        if (item != null) {
+                            byte[] data = serializeItem(item);
+                            hashes[i] = hashItemData(data);
+                            blobs.putIfAbsent(hashes[i], data);
+                        }
+                    }
+                    storeBlobs(conn, blobs);
+
+                    String insertItem = "INSERT INTO loadout_items (loadout_id, slot_index, item_data, blob_hash) VALUES (?, ?, ?, ?)";
                     try (PreparedStatement stmt = conn.prepareStatement(insertItem)) {
-                        List<ItemStack> items = loadout.getFinalItems();
-                        for (int i = 0; i < items.size(); i++) {
-                            ItemStack item = items.get(i);
-                            if (item != null) {
+                        for (int i = 0; i < hashes.length; i++) {
+                            if (hashes[i] != null) {
                                 stmt.setInt(1, loadoutId);
                                 stmt.setInt(2, i);
-                                stmt.setBytes(3, serializeItem(item));
+                                stmt.setBytes(3, new byte[0]);
+                                stmt.setString(4, hashes[i]);
                                 stmt.addBatch();
                             }
                         }
@@ -304,7 +436,10 @@ public class DatabaseManager {
                     }
                 }
 
+                recordChange(conn, loadout.getPlayerUUID(), loadout.getName(), CHANGE_SAVE);
+
                 conn.commit();
+                loadout.setVersion(newVersion);
             } catch (SQLException e) {
                 conn.rollback();
                 throw e;
@@ -314,11 +449,27 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Whether an insert failed on a unique key. MySQL reports it as an
+     * integrity constraint violation (SQLState 23xxx); the SQLite driver throws
+     * a plain SQLiteException whose (extended) error code is SQLITE_CONSTRAINT.
+     */
+    private boolean isUniqueViolation(SQLException e) {
+        if (e instanceof SQLIntegrityConstraintViolationException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state != null && state.startsWith("23")) {
+            return true;
+        }
+        return !useMysql && (e.getErrorCode() & 0xff) == SQLITE_CONSTRAINT;
+    }
+
     /**
      * Get a loadout by player and name
      */
     public Loadout getLoadout(UUID playerUUID, String name) throws SQLException {
-        String query = "SELECT id, player_uuid, name, display_name, created_at, updated_at FROM loadouts WHERE player_uuid = ? AND name = ?";
+        String query = "SELECT id, player_uuid, name, display_name, created_at, updated_at, version FROM loadouts WHERE player_uuid = ? AND name = ?";
 
         try (Connection conn = getConnection();
                 PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -334,6 +485,7 @@ public class DatabaseManager {
                             rs.getLong("created_at"),
                             rs.getLong("updated_at"));
                     loadout.setDisplayName(rs.getString("display_name"));
+                    loadout.setVersion(rs.getInt("version"));
                     loadSlots(conn, loadout);
                     loadAttachments(conn, loadout);
                     loadItems(conn, loadout);
@@ -349,7 +501,7 @@ public class DatabaseManager {
      */
     public List<Loadout> getPlayerLoadouts(UUID playerUUID) throws SQLException {
         List<Loadout> loadouts = new ArrayList<>();
-        String query = "SELECT id, player_uuid, name, display_name, created_at, updated_at FROM loadouts WHERE player_uuid = ? ORDER BY name";
+        String query = "SELECT id, player_uuid, name, display_name, created_at, updated_at, version FROM loadouts WHERE player_uuid = ? ORDER BY name";
 
         try (Connection conn = getConnection();
                 PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -364,6 +516,7 @@ public class DatabaseManager {
                             rs.getLong("created_at"),
                             rs.getLong("updated_at"));
                     loadout.setDisplayName(rs.getString("display_name"));
+                    loadout.setVersion(rs.getInt("version"));
                     loadSlots(conn, loadout);
                     loadAttachments(conn, loadout);
                     loadItems(conn, loadout);
@@ -389,15 +542,199 @@ public class DatabaseManager {
      * Delete a loadout by player and name
      */
     public boolean deleteLoadout(UUID playerUUID, String name) throws SQLException {
-        try (Connection conn = getConnection();
-                PreparedStatement stmt = conn
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean deleted;
+                try (PreparedStatement stmt = conn
                         .prepareStatement("DELETE FROM loadouts WHERE player_uuid = ? AND name = ?")) {
+                    stmt.setString(1, playerUUID.toString());
+                    stmt.setString(2, name);
+                    deleted = stmt.executeUpdate() > 0;
+                }
+                if (deleted) {
+                    recordChange(conn, playerUUID, name, CHANGE_DELETE);
+                }
+
+                conn.commit();
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // ==================== Item Blobs ====================
+
+    /**
+     * Make sure every blob exists. Existing blobs are never rewritten, so the
+     * (large) item data is sent once per distinct item, and their last use is
+     * only refreshed once per touch interval. Rows are written in hash order,
+     * so concurrent saves sharing items lock them in the same order.
+     *
+     * A blob read as existing but due for a touch may be swept before the
+     * touch; a touch that changes no row is therefore followed by an insert.
+     * Blobs not due for a touch were used within the touch interval, well
+     * inside the sweep's grace period, so they cannot disappear meanwhile.
+     */
+    private void storeBlobs(Connection conn, Map<String, byte[]> blobs) throws SQLException {
+        if (blobs.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long touchBefore = now - BLOB_TOUCH_INTERVAL_MILLIS;
+        List<String> hashes = new ArrayList<>(new TreeSet<>(blobs.keySet()));
+
+        // Plain read, takes no row locks
+        Map<String, Long> lastUsed = new HashMap<>();
+        String select = "SELECT hash, last_used FROM item_blobs WHERE hash IN ("
+                + String.join(", ", Collections.nCopies(hashes.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(select)) {
+            for (int i = 0; i < hashes.size(); i++) {
+                stmt.setString(i + 1, hashes.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lastUsed.put(rs.getString("hash"), rs.getLong("last_used"));
+                }
+            }
+        }
+
+        String insert = useMysql
+                ? "INSERT IGNORE INTO item_blobs (hash, data, last_used) VALUES (?, ?, ?)"
+                : "INSERT INTO item_blobs (hash, data, last_used) VALUES (?, ?, ?) ON CONFLICT(hash) DO NOTHING";
+        String touch = "UPDATE item_blobs SET last_used = ? WHERE hash = ? AND last_used < ?";
+        try (PreparedStatement insertStmt = conn.prepareStatement(insert);
+                PreparedStatement touchStmt = conn.prepareStatement(touch)) {
+            // One statement at a time to keep the lock order; usually few rows need a write
+            for (String hash : hashes) {
+                Long used = lastUsed.get(hash);
+                if (used != null && used >= touchBefore) {
+                    continue;
+                }
+                if (used != null) {
+                    touchStmt.setLong(1, now);
+                    touchStmt.setString(2, hash);
+                    touchStmt.setLong(3, touchBefore);
+                    if (touchStmt.executeUpdate() > 0) {
+                        continue;
+                    }
+                    // Swept since the read (or touched by another save, the insert is then a no-op)
+                }
+                insertStmt.setString(1, hash);
+                insertStmt.setBytes(2, blobs.get(hash));
+                insertStmt.setLong(3, now);
+                insertStmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Delete blobs no loadout item references anymore. Blobs used within the
+     * grace period are kept since a running save may reference them shortly.
+     */
+    public int sweepItemBlobs() throws SQLException {
+        String delete = "DELETE FROM item_blobs WHERE last_used < ? AND NOT EXISTS "
+                + "(SELECT 1 FROM loadout_items li WHERE li.blob_hash = item_blobs.hash)";
+        try (Connection conn = getConnection();
+                PreparedStatement stmt = conn.prepareStatement(delete)) {
+            stmt.setLong(1, System.currentTimeMillis() - BLOB_SWEEP_GRACE_MILLIS);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * SHA-256 of serialized item data as lowercase hex
+     */
+    private static String hashItemData(byte[] data) throws SQLException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new SQLException("SHA-256 not available", e);
+        }
+    }
+
+    // ==================== Change Log ====================
+
+    /**
+     * Append a change row inside the caller's transaction (no-op when sync is
+     * disabled)
+     */
+    private void recordChange(Connection conn, UUID playerUUID, String name, String changeType)
+            throws SQLException {
+        if (!changeLogEnabled) {
+            return;
+        }
+
+        String insert = "INSERT INTO loadout_changes (player_uuid, name, change_type, server_id, changed_at) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
             stmt.setString(1, playerUUID.toString());
             stmt.setString(2, name);
-            return stmt.executeUpdate() > 0;
+            stmt.setString(3, changeType);
+            stmt.setString(4, serverId);
+            stmt.setLong(5, System.currentTimeMillis());
+            stmt.executeUpdate();
         }
     }
 
+    /**
+     * Get up to {@code limit} changes with an ID greater than {@code afterId},
+     * oldest first. Served by a range scan on the primary key.
+     */
+    public List<LoadoutChange> getChangesSince(long afterId, int limit) throws SQLException {
+        List<LoadoutChange> changes = new ArrayList<>();
+        String query = "SELECT id, player_uuid, name, change_type, server_id FROM loadout_changes WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new LoadoutChange(
+                            rs.getLong("id"),
+                            UUID.fromString(rs.getString("player_uuid")),
+                            rs.getString("name"),
+                            rs.getString("change_type"),
+                            rs.getString("server_id")));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Get the newest change ID, or 0 if the log is empty
+     */
+    public long getLatestChangeId() throws SQLException {
+        try (Connection conn = getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM loadout_changes")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Delete change rows older than the given timestamp
+     */
+    public int pruneChanges(long olderThan) throws SQLException {
+        try (Connection conn = getConnection();
+                PreparedStatement stmt = conn.prepareStatement("DELETE FROM loadout_changes WHERE changed_at < ?")) {
+            stmt.setLong(1, olderThan);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Get the random ID this server writes into the change log
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
     /**
      * Get loadout count for a player
      */
@@ -454,7 +791,8 @@ public class DatabaseManager {
      * Load items for a loadout
      */
     private void loadItems(Connection conn, Loadout loadout) throws SQLException {
-        String query = "SELECT slot_index, item_data FROM loadout_items WHERE loadout_id = ? ORDER BY slot_index";
+        String query = "SELECT li.slot_index, COALESCE(b.data, li.item_data) AS item_data FROM loadout_items li "
+                + "LEFT JOIN item_blobs b ON b.hash = li.blob_hash WHERE li.loadout_id = ? ORDER BY li.slot_index";
         List<ItemStack> items = new ArrayList<>();
 
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -503,7 +841,7 @@ public class DatabaseManager {
     /**
      * Serialize an ItemStack to bytes
      */
-    private byte[] serializeItem(ItemStack item) throws SQLException {
+    static byte[] serializeItem(ItemStack item) throws SQLException {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 BukkitObjectOutputStream oos = new BukkitObjectOutputStream(baos)) {
             oos.writeObject(item);
@@ -516,7 +854,7 @@ public class DatabaseManager {
     /**
      * Deserialize bytes to an ItemStack
      */
-    private ItemStack deserializeItem(byte[] data) throws IOException {
+    static ItemStack deserializeItem(byte[] data) throws IOException {
         try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
                 BukkitObjectInputStream ois = new BukkitObjectInputStream(bais)) {
             return (ItemStack) ois.readObject();
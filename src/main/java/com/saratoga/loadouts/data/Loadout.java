@@ -18,6 +18,7 @@ public class Loadout {
     private List<ItemStack> finalItems;
     private long createdAt;
     private long updatedAt;
+    private int version; // Row version for optimistic concurrency, 0 = not persisted yet
 
     /**
      * Create a new loadout (for creation)
@@ -138,10 +139,36 @@ public class Loadout {
         this.updatedAt = updatedAt;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public void touch() {
         this.updatedAt = System.currentTimeMillis();
     }
 
+    /**
+     * Create a detached copy (slots copied, items cloned) that can be handed
+     * to another thread while this instance keeps being edited
+     */
+    public Loadout copy() {
+        Loadout copy = new Loadout(id, playerUUID, name, createdAt, updatedAt);
+        copy.displayName = displayName;
+        copy.version = version;
+        for (Map.Entry<String, LoadoutSlot> entry : slots.entrySet()) {
+            copy.slots.put(entry.getKey(), entry.getValue().copy());
+        }
+        copy.attachments.putAll(attachments);
+        for (ItemStack item : finalItems) {
+            copy.finalItems.add(item != null ? item.clone() : null);
+        }
+        return copy;
+    }
+
     /**
      * Check if this loadout has been saved to database
      */
@@ -179,6 +206,7 @@ public class Loadout {
                 "id=" + id +
                 ", playerUUID=" + playerUUID +
                 ", name='" + name + '\'' +
+                ", version=" + version +
                 ", slots=" + slots.size() +
                 ", finalItems=" + (finalItems != null ? finalItems.size() : 0) +
                 '}';
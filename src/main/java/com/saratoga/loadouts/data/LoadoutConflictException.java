@@ -0,0 +1,29 @@
+package com.saratoga.loadouts.data;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Thrown when a loadout row was changed by someone else (usually another
+ * server sharing the database) since the local copy was loaded.
+ */
+public class LoadoutConflictException extends SQLException {
+
+    private final UUID playerUUID;
+    private final String name;
+
+    public LoadoutConflictException(UUID playerUUID, String name, int expectedVersion) {
+        super("Loadout " + playerUUID + "/" + name + " was modified concurrently (expected version "
+                + expectedVersion + ")");
+        this.playerUUID = playerUUID;
+        this.name = name;
+    }
+
+    public UUID getPlayerUUID() {
+        return playerUUID;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -5,10 +5,15 @@ import com.saratoga.loadouts.LoadoutsConfig;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
 
 /**
@@ -27,13 +32,89 @@ public class LoadoutManager {
     // Cache of loaded loadouts: playerUUID -> (slotNumber -> Loadout)
     private final Map<UUID, Map<String, Loadout>> loadoutCache = new ConcurrentHashMap<>();
 
+    // Revision of each owner's cached loadouts, taken from one increasing counter
+    // whenever they change; owners without an entry are at baseRevision
+    private final AtomicLong revisionCounter = new AtomicLong();
+    private final Map<UUID, Long> revisions = new ConcurrentHashMap<>();
+    private volatile long baseRevision = 0;
+
     // Active edit sessions
     private final Map<UUID, LoadoutEditSession> editSessions = new ConcurrentHashMap<>();
 
+    // Save/delete/rename writes, serialized per owner (player or GLOBAL_UUID)
+    private static final int WRITER_THREADS = 4;
+    private final PlayerWriteQueue writeQueue = new PlayerWriteQueue(WRITER_THREADS);
+
+    // How often a write that lost a version race is rebased and retried
+    private static final int MAX_CONFLICT_RETRIES = 3;
+
+    // Row ID, version and display name this server last wrote (or found) per
+    // owner and name. Only touched by the owner's writer, so it is always at
+    // least as new as what reached the live loadouts, whose update waits for
+    // the main thread.
+    private record CommittedRow(int id, int version, String displayName) {
+    }
+
+    private final Map<UUID, Map<String, CommittedRow>> committedRows = new ConcurrentHashMap<>();
+
+    // Local journal of queued writes so they survive a restart before reaching the DB
+    private final WriteJournal journal;
+    private volatile boolean shuttingDown = false;
+
     public LoadoutManager(Loadouts plugin) {
         this.plugin = plugin;
         this.databaseManager = plugin.getDatabaseManager();
         this.config = plugin.getLoadoutsConfig();
+
+        this.journal = new WriteJournal(new File(plugin.getDataFolder(), "pending-writes.journal"),
+                plugin.getLogger());
+        try {
+            journal.open();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open write journal, pending writes will not survive restarts",
+                    e);
+        }
+    }
+
+    /**
+     * Re-apply writes that were journaled but never committed before the last
+     * shutdown. Runs synchronously during startup, before any new writes.
+     * Returns false if a write could not be applied; it and every write after
+     * it stay journaled for the next start, and no new writes may be accepted
+     * meanwhile, or replaying them later would overwrite the newer rows.
+     */
+    public boolean replayPendingWrites() {
+        List<WriteJournal.Entry> entries = journal.getPendingEntries();
+        if (entries.isEmpty()) {
+            return true;
+        }
+
+        plugin.getLogger().info("Replaying " + entries.size() + " pending loadout writes from the journal...");
+        int applied = 0;
+        for (WriteJournal.Entry entry : entries) {
+            try {
+                if (entry.type() == WriteJournal.EntryType.SAVE) {
+                    // Match the row by owner + name, the journaled ID/version may be stale
+                    Loadout loadout = entry.loadout();
+                    loadout.setId(-1);
+                    loadout.setVersion(0);
+                    writeWithConflictRetry(loadout, latest -> rebaseOnto(loadout, latest));
+                } else {
+                    databaseManager.deleteLoadout(entry.owner(), entry.name());
+                    recordCommitted(entry.owner(), entry.name(), null);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to replay journaled " + entry.type() + " of "
+                        + entry.owner() + "/" + entry.name() + ", keeping it and the "
+                        + (entries.size() - applied - 1) + " writes after it for the next start", e);
+                return false;
+            }
+            journal.complete(entry.seq());
+            applied++;
+        }
+
+        plugin.getLogger().info("Journal replay finished (" + applied + " writes applied)");
+        return true;
     }
 
     // ==================== Loadout Operations ====================
@@ -56,6 +137,7 @@ public class LoadoutManager {
             }
             if (loadout != null) {
                 playerLoadouts.put(slotNumber, loadout);
+                bumpRevision(playerUUID);
             }
             return loadout;
         } catch (SQLException e) {
@@ -93,32 +175,225 @@ public class LoadoutManager {
                 playerLoadouts.put(loadout.getName(), loadout);
             }
             loadoutCache.put(playerUUID, playerLoadouts);
+            bumpRevision(playerUUID);
         } catch (SQLException e) {
             plugin.getLogger().log(Level.WARNING, "Failed to load player loadouts", e);
         }
     }
 
     /**
-     * Save a loadout (async)
+     * Save a loadout (async, ordered after earlier writes for the same owner).
+     * A full save is the player's latest explicit intent, so if another server
+     * changed the row meanwhile the save is rebased onto the current version
+     * and written again.
      */
     public CompletableFuture<Boolean> saveLoadout(Loadout loadout) {
-        return CompletableFuture.supplyAsync(() -> {
+        // Write a detached snapshot so edits made on the main thread meanwhile
+        // cannot race the DB write, and journal it before queueing
+        Loadout snapshot = loadout.copy();
+        long journalSeq = journal.appendSave(snapshot);
+
+        return writeQueue.submit(loadout.getPlayerUUID(), () -> {
             try {
-                databaseManager.saveLoadout(loadout);
+                syncJournal(journalSeq);
+                rebaseOntoCommitted(snapshot);
+                Loadout written = writeWithConflictRetry(snapshot, latest -> rebaseOnto(snapshot, latest));
+                journal.complete(journalSeq);
+                if (written == null) {
+                    return false;
+                }
 
-                // Update cache
-                Map<String, Loadout> playerLoadouts = loadoutCache.computeIfAbsent(
-                        loadout.getPlayerUUID(), k -> new ConcurrentHashMap<>());
-                playerLoadouts.put(loadout.getName(), loadout);
+                // The live loadout is rendered by the main thread, so only touch it there
+                int id = written.getId();
+                int version = written.getVersion();
+                onMainThread(() -> {
+                    loadout.setId(id);
+                    loadout.setVersion(version);
+                    putCachedLoadout(loadout);
+                });
 
                 return true;
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to save loadout", e);
+                discardJournalEntry(journalSeq);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Change the display name of a loadout (async, ordered after earlier writes
+     * for the same owner). If another server changed the row meanwhile, only
+     * the name is applied on top of the current row so its contents are not
+     * overwritten with the local copy.
+     */
+    public CompletableFuture<Boolean> renameLoadout(Loadout loadout, String displayName) {
+        // The live loadout keeps its name until the write succeeded
+        Loadout snapshot = loadout.copy();
+        snapshot.setDisplayName(displayName);
+        long journalSeq = journal.appendSave(snapshot);
+
+        return writeQueue.submit(loadout.getPlayerUUID(), () -> {
+            try {
+                syncJournal(journalSeq);
+                rebaseOntoCommitted(snapshot);
+                snapshot.setDisplayName(displayName);
+                Loadout written = writeWithConflictRetry(snapshot, latest -> {
+                    if (latest != null) {
+                        latest.setDisplayName(displayName);
+                    }
+                    return latest; // Deleted elsewhere - nothing left to rename
+                });
+                journal.complete(journalSeq);
+                if (written == null) {
+                    return false;
+                }
+
+                if (written == snapshot) {
+                    int id = written.getId();
+                    int version = written.getVersion();
+                    onMainThread(() -> {
+                        loadout.setId(id);
+                        loadout.setVersion(version);
+                        loadout.setDisplayName(displayName);
+                        putCachedLoadout(loadout); // New name, so cached menus must re-render
+                    });
+                } else {
+                    // Renamed on top of a newer row, which replaces the stale local copy
+                    onMainThread(() -> putCachedLoadout(written));
+                }
+                return true;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to rename loadout", e);
+                discardJournalEntry(journalSeq);
                 return false;
             }
         });
     }
 
+    /**
+     * Write a loadout with compare-and-set. On a version conflict the current
+     * row is reloaded and handed to {@code rebase}, which returns what to write
+     * instead (or null to give up). Returns the loadout that was written, or
+     * null if the write was given up; the current row then replaces the cached
+     * one on the main thread.
+     */
+    private Loadout writeWithConflictRetry(Loadout loadout, UnaryOperator<Loadout> rebase) throws SQLException {
+        UUID owner = loadout.getPlayerUUID();
+        String name = loadout.getName();
+        Loadout attempt = loadout;
+
+        for (int retry = 0;; retry++) {
+            try {
+                databaseManager.saveLoadout(attempt);
+                recordCommitted(owner, name, attempt);
+                return attempt;
+            } catch (LoadoutConflictException e) {
+                Loadout latest = databaseManager.getLoadout(owner, name);
+                Loadout rebased = retry < MAX_CONFLICT_RETRIES ? rebase.apply(latest) : null;
+                if (rebased == null) {
+                    plugin.getLogger().warning("Loadout " + owner + "/" + name
+                            + " was changed on another server, keeping the other server's version");
+                    recordCommitted(owner, name, latest);
+                    onMainThread(() -> {
+                        if (latest != null) {
+                            putCachedLoadout(latest);
+                        } else {
+                            removeCachedLoadout(owner, name);
+                        }
+                    });
+                    return null;
+                }
+
+                plugin.getLogger().info("Loadout " + owner + "/" + name + " was changed on another server, "
+                        + "retrying on top of version " + (latest != null ? latest.getVersion() : 0));
+                attempt = rebased;
+            }
+        }
+    }
+
+    /**
+     * A snapshot taken before an earlier write of this server reached the live
+     * loadout still carries the old ID/version (or none, for a new loadout)
+     * and display name. Point it at the row that write left, so it neither
+     * conflicts with it nor undoes a rename. Snapshots at a newer version
+     * (reloaded from another server) are kept.
+     */
+    private void rebaseOntoCommitted(Loadout snapshot) {
+        Map<String, CommittedRow> rows = committedRows.get(snapshot.getPlayerUUID());
+        CommittedRow committed = rows != null ? rows.get(snapshot.getName()) : null;
+        if (committed != null && committed.version() > snapshot.getVersion()) {
+            snapshot.setId(committed.id());
+            snapshot.setVersion(committed.version());
+            snapshot.setDisplayName(committed.displayName());
+        }
+    }
+
+    /**
+     * Remember the row a write left (null: there is none). Writer thread of the
+     * owner only.
+     */
+    private void recordCommitted(UUID owner, String name, Loadout row) {
+        if (row != null) {
+            committedRows.computeIfAbsent(owner, k -> new ConcurrentHashMap<>())
+                    .put(name, new CommittedRow(row.getId(), row.getVersion(), row.getDisplayName()));
+        } else {
+            Map<String, CommittedRow> rows = committedRows.get(owner);
+            if (rows != null) {
+                rows.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Point a full snapshot at the current row so the next write overwrites it
+     */
+    private static Loadout rebaseOnto(Loadout snapshot, Loadout latest) {
+        snapshot.setId(latest != null ? latest.getId() : -1);
+        snapshot.setVersion(latest != null ? latest.getVersion() : 0);
+        return snapshot;
+    }
+
+    /**
+     * Run something that touches loadouts the GUI renders on the main thread.
+     * During shutdown nothing is rendered anymore and the scheduler takes no
+     * new tasks, so it runs right away.
+     */
+    private void onMainThread(Runnable task) {
+        if (shuttingDown || !plugin.isEnabled()) {
+            task.run();
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private void putCachedLoadout(Loadout loadout) {
+        loadoutCache.computeIfAbsent(loadout.getPlayerUUID(), k -> new ConcurrentHashMap<>())
+                .put(loadout.getName(), loadout);
+        bumpRevision(loadout.getPlayerUUID());
+    }
+
+    private void removeCachedLoadout(UUID playerUUID, String name) {
+        Map<String, Loadout> playerLoadouts = loadoutCache.get(playerUUID);
+        if (playerLoadouts != null) {
+            playerLoadouts.remove(name);
+        }
+        bumpRevision(playerUUID);
+    }
+
+    private void bumpRevision(UUID playerUUID) {
+        revisions.put(playerUUID, revisionCounter.incrementAndGet());
+    }
+
+    /**
+     * Revision of an owner's loadouts (player or GLOBAL_UUID). Changes whenever
+     * a cached loadout of the owner is saved, deleted, renamed, reloaded or
+     * dropped, so anything rendered from them can be reused while it is equal.
+     */
+    public long getRevision(UUID playerUUID) {
+        return revisions.getOrDefault(playerUUID, baseRevision);
+    }
+
     /**
      * Save player's current inventory to a slot number
      */
@@ -259,26 +534,50 @@ public class LoadoutManager {
     }
 
     /**
-     * Delete a loadout (async)
+     * Delete a loadout (async, ordered after earlier writes for the same owner)
      */
     public CompletableFuture<Boolean> deleteLoadout(UUID playerUUID, String slotNumber) {
-        return CompletableFuture.supplyAsync(() -> {
+        long journalSeq = journal.appendDelete(playerUUID, slotNumber);
+
+        return writeQueue.submit(playerUUID, () -> {
             try {
+                syncJournal(journalSeq);
                 boolean deleted = databaseManager.deleteLoadout(playerUUID, slotNumber);
+                recordCommitted(playerUUID, slotNumber, null);
+                journal.complete(journalSeq);
                 if (deleted) {
-                    Map<String, Loadout> playerLoadouts = loadoutCache.get(playerUUID);
-                    if (playerLoadouts != null) {
-                        playerLoadouts.remove(slotNumber);
-                    }
+                    onMainThread(() -> removeCachedLoadout(playerUUID, slotNumber));
                 }
                 return deleted;
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to delete loadout", e);
+                discardJournalEntry(journalSeq);
                 return false;
             }
         });
     }
 
+    /**
+     * Make sure a journaled write is on disk before it is sent to the database
+     */
+    private void syncJournal(long journalSeq) {
+        try {
+            journal.sync(journalSeq);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to sync write journal", e);
+        }
+    }
+
+    /**
+     * Drop the journal entry of a failed write. During shutdown the failure is
+     * most likely the pool going away, so the entry is kept for replay instead.
+     */
+    private void discardJournalEntry(long journalSeq) {
+        if (!shuttingDown) {
+            journal.complete(journalSeq);
+        }
+    }
+
     // ==================== Edit Sessions ====================
 
     /**
@@ -313,11 +612,51 @@ public class LoadoutManager {
 
     // ==================== Cache Management ====================
 
+    /**
+     * Reload one loadout after another server changed it. Only owners that are
+     * cached here are reloaded, and the reload is queued behind local writes
+     * for the same owner so it never replaces a newer local version. The
+     * owner's revision changes either way: menus rendered while it was not
+     * cached (an empty global slot) are stale too. The cache itself is only
+     * changed on the main thread, which renders from it.
+     */
+    public void refreshCachedLoadout(UUID playerUUID, String name) {
+        if (!loadoutCache.containsKey(playerUUID)) {
+            onMainThread(() -> bumpRevision(playerUUID));
+            return; // Loaded fresh from the DB on first use anyway
+        }
+
+        writeQueue.submit(playerUUID, () -> {
+            try {
+                Loadout latest = databaseManager.getLoadout(playerUUID, name);
+                onMainThread(() -> {
+                    if (latest == null) {
+                        removeCachedLoadout(playerUUID, name);
+                        return;
+                    }
+                    Map<String, Loadout> playerLoadouts = loadoutCache.get(playerUUID);
+                    Loadout cached = playerLoadouts != null ? playerLoadouts.get(name) : null;
+                    if (cached == null || cached.getVersion() < latest.getVersion()) {
+                        putCachedLoadout(latest);
+                    }
+                });
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to refresh loadout " + playerUUID + "/" + name
+                        + ", dropping the cached copy", e);
+                onMainThread(() -> clearCache(playerUUID));
+            }
+            return null;
+        });
+    }
+
     /**
      * Clear cache for a player
      */
     public void clearCache(UUID playerUUID) {
         loadoutCache.remove(playerUUID);
+        bumpRevision(playerUUID);
+        // Behind the owner's queued writes, which may still need the rows
+        writeQueue.submit(playerUUID, () -> committedRows.remove(playerUUID));
     }
 
     /**
@@ -326,6 +665,40 @@ public class LoadoutManager {
     public void clearAllCaches() {
         loadoutCache.clear();
         editSessions.clear();
+        baseRevision = revisionCounter.incrementAndGet();
+        revisions.clear();
+    }
+
+    /**
+     * Wait (up to the deadline) for queued writes to finish, then stop the writer
+     * threads and close the journal. Writes still pending stay journaled and
+     * are replayed on the next start.
+     */
+    public void shutdown(long timeoutSeconds) {
+        shuttingDown = true;
+        try {
+            if (!writeQueue.shutdown(timeoutSeconds, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for pending loadout writes to finish, "
+                        + journal.getPendingCount() + " will be replayed on next start");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    /**
+     * Number of owners with queued or running writes (for statistics)
+     */
+    public int getWritingOwnerCount() {
+        return writeQueue.getActiveOwnerCount();
+    }
+
+    /**
+     * Number of journaled writes not committed yet (for statistics)
+     */
+    public int getPendingWriteCount() {
+        return journal.getPendingCount();
     }
 
     /**
@@ -359,6 +732,9 @@ public class LoadoutManager {
         private String currentSlotType; // Current weapon category slot being selected
         private String currentAttachmentSlot; // Current attachment slot being selected
         private int currentPage = 0; // Pagination for weapon selection
+        private String searchQuery; // Weapon search in the weapon selection, null if none
+        private List<String> searchResults; // Weapons matching searchQuery, computed once per query
+        private long searchResultsGeneration; // Catalog generation the results were computed from
         private final Map<String, LoadoutSlot> selectedSlots = new LinkedHashMap<>();
         private final Map<String, String> selectedAttachments = new LinkedHashMap<>(); // slotKey -> attachmentId
         private final long startTime;
@@ -404,6 +780,28 @@ public class LoadoutManager {
             this.currentPage = Math.max(0, currentPage);
         }
 
+        public String getSearchQuery() {
+            return searchQuery;
+        }
+
+        public void setSearchQuery(String searchQuery) {
+            this.searchQuery = searchQuery;
+            this.searchResults = null;
+        }
+
+        /**
+         * Results of the current search, or null if they have not been computed
+         * from this catalog generation yet
+         */
+        public List<String> getSearchResults(long catalogGeneration) {
+            return catalogGeneration == searchResultsGeneration ? searchResults : null;
+        }
+
+        public void setSearchResults(List<String> searchResults, long catalogGeneration) {
+            this.searchResults = searchResults;
+            this.searchResultsGeneration = catalogGeneration;
+        }
+
         public Map<String, LoadoutSlot> getSelectedSlots() {
             return selectedSlots;
         }
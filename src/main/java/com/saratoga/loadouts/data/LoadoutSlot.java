@@ -47,6 +47,10 @@ public class LoadoutSlot {
         this.ammoAmount = ammoAmount;
     }
 
+    public LoadoutSlot copy() {
+        return new LoadoutSlot(slotType, weaponTitle, category, wmWeapon, ammoAmount);
+    }
+
     public String getSlotType() {
         return slotType;
     }
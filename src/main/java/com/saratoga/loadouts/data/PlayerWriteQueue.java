@@ -0,0 +1,104 @@
+package com.saratoga.loadouts.data;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Serialized per-owner pipeline for loadout writes.
+ * Tasks submitted for the same owner run one after another in submission
+ * order, tasks for different owners run in parallel on a shared worker pool.
+ */
+public class PlayerWriteQueue {
+
+    private final ExecutorService executor;
+
+    // Owner UUID -> last queued task (the tail of that owner's pipeline)
+    private final Map<UUID, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    private volatile boolean shutdown = false;
+
+    public PlayerWriteQueue(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Loadouts-Writer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a task behind every task previously submitted for the same owner.
+     * A failed task does not block the tasks queued after it.
+     */
+    public <T> CompletableFuture<T> submit(UUID owner, Supplier<T> task) {
+        if (shutdown) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Write queue is shut down"));
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T>[] queued = new CompletableFuture[1];
+
+        tails.compute(owner, (key, tail) -> {
+            CompletableFuture<?> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            queued[0] = previous.handle((result, error) -> null)
+                    .thenApplyAsync(ignored -> task.get(), executor);
+            return queued[0];
+        });
+
+        CompletableFuture<T> future = queued[0];
+        // Drop the tail once it has finished so idle owners do not accumulate
+        future.whenComplete((result, error) -> tails.remove(owner, future));
+        return future;
+    }
+
+    /**
+     * Get the number of owners that currently have queued or running writes
+     */
+    public int getActiveOwnerCount() {
+        return tails.size();
+    }
+
+    /**
+     * Stop accepting work and wait for already queued writes to finish.
+     * Returns false if writes were still pending when the timeout expired.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        shutdown = true;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        // Queued tasks are only handed to the executor once their predecessor
+        // finishes, so wait on the pipelines themselves rather than the executor
+        while (!tails.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                CompletableFuture.allOf(tails.values().toArray(new CompletableFuture[0]))
+                        .get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // Failures are reported to whoever submitted the task
+            } catch (TimeoutException e) {
+                break;
+            }
+        }
+
+        boolean drained = tails.isEmpty();
+        if (drained) {
+            executor.shutdown();
+        } else {
+            executor.shutdownNow();
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,356 @@
+package com.saratoga.loadouts.data;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of loadout writes that have been queued but not yet
+ * committed to the database. Entries are replayed on the next start if the
+ * server stopped before they were written.
+ *
+ * Record layout: [int payloadLength][int crc32][payload], where the payload
+ * starts with the record type and sequence number. A torn or corrupt record
+ * ends the replay.
+ */
+public class WriteJournal {
+
+    public enum EntryType {
+        SAVE, DELETE, DONE
+    }
+
+    /**
+     * A journaled write that has not been marked as done
+     */
+    public record Entry(long seq, EntryType type, UUID owner, String name, Loadout loadout) {
+    }
+
+    private final File file;
+    private final Logger logger;
+
+    private FileChannel channel;
+    private long nextSeq = 1;
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+
+    // Group commit: one force() covers every record appended before it
+    private final Object syncLock = new Object();
+    private volatile long syncedSeq = 0;
+
+    public WriteJournal(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Read entries left over from the previous run and open the journal for
+     * appending
+     */
+    public synchronized void open() throws IOException {
+        long validLength = 0;
+        if (file.exists()) {
+            validLength = readExisting();
+        } else {
+            File parent = file.getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+        }
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        syncedSeq = nextSeq - 1;
+
+        // Drop a torn or corrupt tail, records appended behind it would never be read
+        channel.truncate(pending.isEmpty() ? 0 : validLength);
+    }
+
+    /**
+     * Get writes from the previous run that were never marked as done, in the
+     * order they were queued
+     */
+    public synchronized List<Entry> getPendingEntries() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Journal a save. The loadout must be a detached copy that nobody mutates
+     * afterwards. Returns the sequence number, or -1 if the journal is
+     * unavailable.
+     */
+    public long appendSave(Loadout loadout) {
+        return append(EntryType.SAVE, loadout.getPlayerUUID(), loadout.getName(), loadout);
+    }
+
+    /**
+     * Journal a delete. Returns the sequence number, or -1 if the journal is
+     * unavailable.
+     */
+    public long appendDelete(UUID owner, String name) {
+        return append(EntryType.DELETE, owner, name, null);
+    }
+
+    private synchronized long append(EntryType type, UUID owner, String name, Loadout loadout) {
+        if (channel == null) {
+            return -1;
+        }
+
+        long seq = nextSeq++;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type.ordinal());
+            out.writeLong(seq);
+            out.writeLong(owner.getMostSignificantBits());
+            out.writeLong(owner.getLeastSignificantBits());
+            out.writeUTF(name);
+            if (type == EntryType.SAVE) {
+                writeLoadout(out, loadout);
+            }
+            out.flush();
+
+            writeRecord(bytes.toByteArray());
+            pending.put(seq, new Entry(seq, type, owner, name, loadout));
+            return seq;
+        } catch (IOException | SQLException e) {
+            logger.log(Level.WARNING, "Failed to journal loadout write for " + owner + "/" + name, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Make sure the record with the given sequence number is on disk
+     */
+    public void sync(long seq) throws IOException {
+        if (seq <= 0 || seq <= syncedSeq) {
+            return;
+        }
+
+        synchronized (syncLock) {
+            if (seq <= syncedSeq) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = nextSeq - 1;
+                current = channel;
+            }
+            if (current != null && current.isOpen()) {
+                current.force(false);
+            }
+            syncedSeq = target;
+        }
+    }
+
+    /**
+     * Mark a journaled write as committed (or deliberately dropped). The file is
+     * truncated once nothing is pending anymore.
+     */
+    public synchronized void complete(long seq) {
+        if (seq <= 0 || channel == null || pending.remove(seq) == null) {
+            return;
+        }
+
+        try {
+            if (pending.isEmpty()) {
+                channel.truncate(0);
+            } else {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeByte(EntryType.DONE.ordinal());
+                out.writeLong(seq);
+                out.flush();
+                writeRecord(bytes.toByteArray());
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to mark journal entry " + seq + " as done", e);
+        }
+    }
+
+    /**
+     * Get the number of journaled writes not yet marked as done
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Flush everything to disk and close the journal. Pending entries stay in
+     * the file for the next start.
+     */
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close write journal", e);
+        }
+        channel = null;
+    }
+
+    private void writeRecord(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Returns the length of the readable part of the file
+    private long readExisting() throws IOException {
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break; // Clean end of journal
+                }
+
+                int expectedCrc = in.readInt();
+                if (length <= 0 || length > 64 * 1024 * 1024) {
+                    logger.warning("Corrupt record in write journal, ignoring the rest of the file");
+                    break;
+                }
+                byte[] payload = new byte[length];
+                try {
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    logger.warning("Write journal ends with a partial record, ignoring it");
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    logger.warning("Checksum mismatch in write journal, ignoring the rest of the file");
+                    break;
+                }
+
+                readRecord(payload);
+                validLength += 8 + length;
+            }
+        } catch (EOFException e) {
+            logger.warning("Write journal ends with a partial record header, ignoring it");
+        }
+        return validLength;
+    }
+
+    private void readRecord(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        EntryType type = EntryType.values()[in.readByte()];
+        long seq = in.readLong();
+        nextSeq = Math.max(nextSeq, seq + 1);
+
+        if (type == EntryType.DONE) {
+            pending.remove(seq);
+            return;
+        }
+
+        UUID owner = new UUID(in.readLong(), in.readLong());
+        String name = in.readUTF();
+        Loadout loadout = type == EntryType.SAVE ? readLoadout(in, owner, name) : null;
+        pending.put(seq, new Entry(seq, type, owner, name, loadout));
+    }
+
+    private void writeLoadout(DataOutputStream out, Loadout loadout) throws IOException, SQLException {
+        writeNullableString(out, loadout.getDisplayName());
+        out.writeLong(loadout.getCreatedAt());
+        out.writeLong(loadout.getUpdatedAt());
+
+        out.writeInt(loadout.getSlots().size());
+        for (LoadoutSlot slot : loadout.getSlots().values()) {
+            out.writeUTF(slot.getSlotType());
+            out.writeUTF(slot.getWeaponTitle());
+            writeNullableString(out, slot.getCategory());
+            out.writeBoolean(slot.isWmWeapon());
+            out.writeInt(slot.getAmmoAmount());
+        }
+
+        out.writeInt(loadout.getAttachments().size());
+        for (Map.Entry<String, String> entry : loadout.getAttachments().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+
+        List<ItemStack> items = loadout.getFinalItems();
+        out.writeInt(items.size());
+        for (ItemStack item : items) {
+            if (item == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] data = DatabaseManager.serializeItem(item);
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        }
+    }
+
+    private Loadout readLoadout(DataInputStream in, UUID owner, String name) throws IOException {
+        String displayName = readNullableString(in);
+        long createdAt = in.readLong();
+        long updatedAt = in.readLong();
+
+        Loadout loadout = new Loadout(-1, owner, name, createdAt, updatedAt);
+        loadout.setDisplayName(displayName);
+
+        int slotCount = in.readInt();
+        for (int i = 0; i < slotCount; i++) {
+            LoadoutSlot slot = new LoadoutSlot(in.readUTF(), in.readUTF(), readNullableString(in),
+                    in.readBoolean(), in.readInt());
+            loadout.setSlot(slot.getSlotType(), slot);
+        }
+
+        int attachmentCount = in.readInt();
+        for (int i = 0; i < attachmentCount; i++) {
+            loadout.setAttachment(in.readUTF(), in.readUTF());
+        }
+
+        int itemCount = in.readInt();
+        List<ItemStack> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int length = in.readInt();
+            if (length < 0) {
+                items.add(null);
+                continue;
+            }
+            byte[] data = new byte[length];
+            in.readFully(data);
+            items.add(DatabaseManager.deserializeItem(data));
+        }
+        loadout.setFinalItems(items);
+
+        // Setters above touch updatedAt, restore the journaled value
+        loadout.setUpdatedAt(updatedAt);
+        return loadout;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
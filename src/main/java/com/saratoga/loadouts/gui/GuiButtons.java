@@ -0,0 +1,81 @@
+package com.saratoga.loadouts.gui;
+
+import io.papermc.paper.persistence.PersistentDataContainerView;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Clickable menu items carry their action (and the weapon, attachment or slot
+ * it refers to) in their PersistentDataContainer. The tag is written when the
+ * icon is built, so a click is decoded from the item alone instead of from its
+ * slot position or by asking WeaponMechanics what the item is.
+ */
+final class GuiButtons {
+
+    enum Action {
+        BACK,
+        PREV_PAGE,
+        NEXT_PAGE,
+        SEARCH,
+        CLEAR_SEARCH,
+        CLEAR_SELECTION,
+        RENAME,
+        CONFIRM,
+        OPEN_WEAPON_SLOT,
+        OPEN_ATTACHMENT_SLOT,
+        SELECT_WEAPON,
+        SELECT_CUSTOM_ITEM,
+        SELECT_ATTACHMENT;
+
+        private static final Action[] VALUES = values();
+    }
+
+    record Button(Action action, String id) {
+    }
+
+    private final NamespacedKey actionKey;
+    private final NamespacedKey idKey;
+
+    GuiButtons(Plugin plugin) {
+        this.actionKey = new NamespacedKey(plugin, "gui_action");
+        this.idKey = new NamespacedKey(plugin, "gui_id");
+    }
+
+    /**
+     * Tag an item meta with an action and an optional ID (weapon title,
+     * attachment ID, slot key, ...)
+     */
+    void tag(ItemMeta meta, Action action, String id) {
+        PersistentDataContainer pdc = meta.getPersistentDataContainer();
+        pdc.set(actionKey, PersistentDataType.BYTE, (byte) action.ordinal());
+        if (id != null) {
+            pdc.set(idKey, PersistentDataType.STRING, id);
+        }
+    }
+
+    /**
+     * Tag an item without an ID; returns the same item
+     */
+    ItemStack tag(ItemStack item, Action action) {
+        ItemMeta meta = item.getItemMeta();
+        tag(meta, action, null);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * The button of a clicked item, or null if it is not one (fillers, labels)
+     */
+    Button read(ItemStack item) {
+        PersistentDataContainerView pdc = item.getPersistentDataContainer();
+        Byte code = pdc.get(actionKey, PersistentDataType.BYTE);
+        if (code == null || code < 0 || code >= Action.VALUES.length) {
+            return null;
+        }
+        return new Button(Action.VALUES[code], pdc.get(idKey, PersistentDataType.STRING));
+    }
+}
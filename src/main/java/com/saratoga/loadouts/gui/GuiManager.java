@@ -20,10 +20,12 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages all GUI interactions for the loadout system.
@@ -35,31 +37,146 @@ public class GuiManager implements Listener {
     private final WeaponMechanicsIntegration wmIntegration;
     private final LoadoutsConfig config;
 
-    // Track which inventory is which type
-    private final Map<UUID, GuiType> openGuis = new HashMap<>();
+    // GUI state per player (open menu, navigation, forced selection, chat input).
+    // Concurrent because the chat listener reads it from the async chat thread.
+    private final Map<UUID, GuiSession> guiSessions = new ConcurrentHashMap<>();
 
-    // Track players in forced loadout selection mode (cannot ESC out)
-    private final Set<UUID> selectingLoadoutPlayers = new HashSet<>();
-
-    // Track players doing intentional GUI navigation (back button, rename, etc.)
-    // When true, InventoryCloseEvent should NOT trigger auto-proceed to save mode
-    private final Set<UUID> isNavigating = new HashSet<>();
-
-    // Track players waiting for chat input to rename loadout
-    private final Set<UUID> awaitingRename = new HashSet<>();
-
-    // Cooldown for menu reopens to prevent rapid loop from TP etc.
-    private final Map<UUID, Long> lastMenuOpen = new HashMap<>();
+    // Cooldown for forced menu reopens to prevent rapid loop from TP etc.
     private static final long MENU_REOPEN_COOLDOWN_MS = 500;
 
     // Max loadout slots
     private static final int MAX_SLOTS = 5;
 
+    // Rendered main menu per player, reused while the loadouts and catalog are unchanged
+    private record CachedMainMenu(long ownRevision, long globalRevision, long catalogGeneration,
+            ItemStack[] contents) {
+    }
+
+    private final Map<UUID, CachedMainMenu> mainMenuCache = new HashMap<>();
+
+    // Rendered loadout buttons, shared by the main and slot selection menus
+    private final LoadoutIconCache loadoutIcons = new LoadoutIconCache();
+
+    // Attachments of one attachment slot that fit one weapon, and their unselected
+    // icons, for one catalog generation. Icons are rendered on first display and
+    // then shared.
+    private record AttachmentSlotKey(String slotKey, String weaponTitle) {
+    }
+
+    private record AttachmentSlotIcons(long catalogGeneration, List<String> attachments, ItemStack[] icons) {
+    }
+
+    private final Map<AttachmentSlotKey, AttachmentSlotIcons> attachmentSlotIcons = new HashMap<>();
+
+    // Action tags of clickable menu items
+    private final GuiButtons buttons;
+
+    // Main menu label with the player's skin, resolved once per session
+    private final PlayerHeadCache playerHeads;
+
+    // Static menu frames and shared buttons, rebuilt by reloadTemplates()
+    private MenuTemplate categoryMenuTemplate;
+    private MenuTemplate weaponSelectTemplate;
+    private MenuTemplate attachmentSelectTemplate;
+    private ItemStack grayFiller;
+    private ItemStack prevPageItem;
+    private ItemStack nextPageItem;
+    private ItemStack searchItem;
+    private ItemStack clearSearchItem;
+    private ItemStack noWeaponsItem;
+    private ItemStack noAttachmentsItem;
+
     public GuiManager(Loadouts plugin) {
         this.plugin = plugin;
         this.loadoutManager = plugin.getLoadoutManager();
         this.wmIntegration = plugin.getWmIntegration();
         this.config = plugin.getLoadoutsConfig();
+        this.buttons = new GuiButtons(plugin);
+        this.playerHeads = new PlayerHeadCache(plugin,
+                meta -> meta.displayName(Component.text("あなたのロードアウト", NamedTextColor.AQUA)
+                        .decorate(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false)),
+                mainMenuCache::remove); // Re-render with the skin on the next open
+        reloadTemplates();
+    }
+
+    public LoadoutIconCache getLoadoutIcons() {
+        return loadoutIcons;
+    }
+
+    /**
+     * Build the static parts of the edit menus from the current config. Call
+     * again after the config was reloaded.
+     */
+    public void reloadTemplates() {
+        mainMenuCache.clear();
+        loadoutIcons.clear();
+        attachmentSlotIcons.clear();
+        grayFiller = createFillerItem(Material.GRAY_STAINED_GLASS_PANE);
+        ItemStack blackFiller = createFillerItem(Material.BLACK_STAINED_GLASS_PANE);
+        ItemStack backItem = buttons.tag(createNavigationItem(Material.ARROW, "&7戻る"), GuiButtons.Action.BACK);
+        prevPageItem = buttons.tag(createNavigationItem(Material.ARROW, "&e← 前のページ"), GuiButtons.Action.PREV_PAGE);
+        nextPageItem = buttons.tag(createNavigationItem(Material.ARROW, "&e次のページ →"), GuiButtons.Action.NEXT_PAGE);
+        searchItem = createSearchItem(null);
+        clearSearchItem = buttons.tag(createNavigationItem(Material.RED_DYE, "&c検索を解除"),
+                GuiButtons.Action.CLEAR_SEARCH);
+
+        noWeaponsItem = new ItemStack(Material.BARRIER);
+        ItemMeta noWeaponsMeta = noWeaponsItem.getItemMeta();
+        noWeaponsMeta.displayName(Component.text("武器が見つかりません", NamedTextColor.RED)
+                .decoration(TextDecoration.ITALIC, false));
+        noWeaponsMeta.lore(List.of(
+                Component.text("このカテゴリには武器がありません", NamedTextColor.GRAY)
+                        .decoration(TextDecoration.ITALIC, false),
+                Component.text("WeaponMechanicsの設定を確認してください", NamedTextColor.GRAY)
+                        .decoration(TextDecoration.ITALIC, false)));
+        noWeaponsItem.setItemMeta(noWeaponsMeta);
+
+        noAttachmentsItem = new ItemStack(Material.BARRIER);
+        ItemMeta noAttachmentsMeta = noAttachmentsItem.getItemMeta();
+        noAttachmentsMeta.displayName(Component.text("アタッチメントがありません", NamedTextColor.RED)
+                .decoration(TextDecoration.ITALIC, false));
+        noAttachmentsMeta.lore(List.of(
+                Component.text("このカテゴリにはアタッチメントがありません", NamedTextColor.GRAY)
+                        .decoration(TextDecoration.ITALIC, false)));
+        noAttachmentsItem.setItemMeta(noAttachmentsMeta);
+
+        // None button (clear selection) at slot 53 of the select menus
+        ItemStack noneItem = new ItemStack(Material.BARRIER);
+        ItemMeta noneMeta = noneItem.getItemMeta();
+        noneMeta.displayName(Component.text("選択なし", NamedTextColor.RED)
+                .decorate(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false));
+        noneMeta.lore(List.of(
+                Component.text("クリックして選択を解除", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false)));
+        buttons.tag(noneMeta, GuiButtons.Action.CLEAR_SELECTION, null);
+        noneItem.setItemMeta(noneMeta);
+
+        // Rename button (name tag at slot 53) of the category menu
+        ItemStack renameItem = new ItemStack(Material.NAME_TAG);
+        ItemMeta renameMeta = renameItem.getItemMeta();
+        renameMeta.displayName(Component.text("名前の変更", NamedTextColor.YELLOW)
+                .decorate(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false));
+        renameMeta.lore(List.of(
+                Component.text("クリックしてチャットで名前を入力", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false),
+                Component.text("カラーコード(&)使用可能", NamedTextColor.AQUA).decoration(TextDecoration.ITALIC, false)));
+        buttons.tag(renameMeta, GuiButtons.Action.RENAME, null);
+        renameItem.setItemMeta(renameMeta);
+
+        // Category menu: glass everywhere, back and rename buttons
+        ItemStack[] category = new ItemStack[config.getCategoryMenuSize()];
+        Arrays.fill(category, grayFiller);
+        if (category.length == 54) {
+            category[45] = backItem;
+            category[53] = renameItem;
+        }
+        categoryMenuTemplate = new MenuTemplate(category);
+
+        // Select menus: 45 item slots, bottom row with back and none buttons
+        ItemStack[] select = new ItemStack[54];
+        Arrays.fill(select, 45, 54, blackFiller);
+        select[45] = backItem;
+        select[53] = noneItem;
+        weaponSelectTemplate = new MenuTemplate(select);
+        attachmentSelectTemplate = new MenuTemplate(select);
     }
 
     // ==================== Main Menu (Equipment Selection) ====================
@@ -82,21 +199,47 @@ public class GuiManager implements Listener {
         Inventory inv = Bukkit.createInventory(new LoadoutSelectionHolder(), 45,
                 Component.text("ロードアウト選択", NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
 
+        inv.setContents(getMainMenuContents(player));
+
+        // Track force-selection mode BEFORE opening inventory
+        if (forceSelection) {
+            guiSession(player.getUniqueId()).setForceSelection(true);
+            plugin.getLogger().info("[DEBUG] Put " + player.getName() + " into force-selection mode");
+        }
+
+        player.openInventory(inv);
+        guiSession(player.getUniqueId()).opened(GuiType.MAIN_MENU);
+        plugin.getLogger().info(
+                "[DEBUG] Opened loadout menu for " + player.getName() + " (forceSelection=" + forceSelection + ")");
+    }
+
+    /**
+     * Contents of the main menu for a player. Rendered only when one of the
+     * player's loadouts, a global loadout or the weapon catalog changed since
+     * the last render; otherwise the cached contents are shown again.
+     */
+    private ItemStack[] getMainMenuContents(Player player) {
+        UUID uuid = player.getUniqueId();
+        long ownRevision = loadoutManager.getRevision(uuid);
+        long globalRevision = loadoutManager.getRevision(LoadoutManager.GLOBAL_UUID);
+        long catalogGeneration = wmIntegration.getCatalog().getGeneration();
+
+        CachedMainMenu cached = mainMenuCache.get(uuid);
+        if (cached != null && cached.ownRevision() == ownRevision && cached.globalRevision() == globalRevision
+                && cached.catalogGeneration() == catalogGeneration) {
+            return cached.contents();
+        }
+
+        ItemStack[] contents = new ItemStack[45];
+
         // === Personal Loadouts (Row 1: slots 11-15) ===
         // Label for personal loadouts (slot 10) - shows player's head
-        ItemStack personalLabel = new ItemStack(Material.PLAYER_HEAD);
-        org.bukkit.inventory.meta.SkullMeta skullMeta = (org.bukkit.inventory.meta.SkullMeta) personalLabel
-                .getItemMeta();
-        skullMeta.setOwningPlayer(player); // Use player's skin
-        skullMeta.displayName(Component.text("あなたのロードアウト", NamedTextColor.AQUA).decorate(TextDecoration.BOLD)
-                .decoration(TextDecoration.ITALIC, false));
-        personalLabel.setItemMeta(skullMeta);
-        inv.setItem(10, personalLabel);
+        contents[10] = playerHeads.get(player);
 
         for (int i = 1; i <= MAX_SLOTS; i++) {
             Loadout loadout = loadoutManager.getLoadout(player.getUniqueId(), String.valueOf(i));
-            ItemStack slotItem = createApplySlotItem(i, loadout, false);
-            inv.setItem(10 + i, slotItem);
+            ItemStack slotItem = createApplySlotItem(uuid, i, loadout, false);
+            contents[10 + i] = slotItem;
         }
 
         // === Global Loadouts (Row 3: slots 29-33) ===
@@ -110,34 +253,35 @@ public class GuiManager implements Listener {
                 Component.text("初心者でも使いやすい装備が揃っている。", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false)));
 
         globalLabel.setItemMeta(globalMeta);
-        inv.setItem(28, globalLabel);
+        contents[28] = globalLabel;
 
         for (int i = 1; i <= MAX_SLOTS; i++) {
             Loadout globalLoadout = loadoutManager.getGlobalLoadout(String.valueOf(i));
-            ItemStack slotItem = createApplySlotItem(i, globalLoadout, true);
-            inv.setItem(28 + i, slotItem);
+            ItemStack slotItem = createApplySlotItem(LoadoutManager.GLOBAL_UUID, i, globalLoadout, true);
+            contents[28 + i] = slotItem;
         }
 
         // Fill empty slots
-        fillEmpty(inv, Material.GRAY_STAINED_GLASS_PANE);
-
-        // Track force-selection mode BEFORE opening inventory
-        if (forceSelection) {
-            selectingLoadoutPlayers.add(player.getUniqueId());
-            plugin.getLogger().info("[DEBUG] Added " + player.getName() + " to selectingLoadoutPlayers (force mode)");
+        for (int i = 0; i < contents.length; i++) {
+            if (contents[i] == null) {
+                contents[i] = grayFiller;
+            }
         }
 
-        player.openInventory(inv);
-        openGuis.put(player.getUniqueId(), GuiType.MAIN_MENU);
-        plugin.getLogger().info(
-                "[DEBUG] Opened loadout menu for " + player.getName() + " (forceSelection=" + forceSelection + ")");
+
+        // Keyed with the revisions read before rendering: a save finishing meanwhile
+        // (or a loadout loaded from the database while rendering) just means one
+        // more render on the next open, never stale contents
+        mainMenuCache.put(uuid, new CachedMainMenu(ownRevision, globalRevision, catalogGeneration, contents));
+        return contents;
     }
 
     /**
      * Check if player is in force-selection mode
      */
     public boolean isInForceSelectionMode(UUID playerUUID) {
-        return selectingLoadoutPlayers.contains(playerUUID);
+        GuiSession session = guiSessions.get(playerUUID);
+        return session != null && session.isForceSelection();
     }
 
     /**
@@ -145,7 +289,14 @@ public class GuiManager implements Listener {
      * application)
      */
     public void completeForceSelection(UUID playerUUID) {
-        selectingLoadoutPlayers.remove(playerUUID);
+        GuiSession session = guiSessions.get(playerUUID);
+        if (session != null) {
+            session.setForceSelection(false);
+        }
+    }
+
+    private GuiSession guiSession(UUID playerUUID) {
+        return guiSessions.computeIfAbsent(playerUUID, k -> new GuiSession());
     }
 
     /**
@@ -154,7 +305,17 @@ public class GuiManager implements Listener {
      * 
      * @param isGlobal true if this is a global loadout slot
      */
-    private ItemStack createApplySlotItem(int slotNumber, Loadout loadout, boolean isGlobal) {
+    private ItemStack createApplySlotItem(UUID owner, int slotNumber, Loadout loadout, boolean isGlobal) {
+        if (loadout != null && loadout.hasFinalItems()) {
+            String style = (isGlobal ? "apply-global:" : "apply:") + slotNumber;
+            return loadoutIcons.getRendered(loadout, wmIntegration.getCatalog().getGeneration(), style,
+                    l -> renderApplySlotItem(slotNumber, l, isGlobal));
+        }
+        loadoutIcons.invalidate(owner, String.valueOf(slotNumber));
+        return renderApplySlotItem(slotNumber, loadout, isGlobal);
+    }
+
+    private ItemStack renderApplySlotItem(int slotNumber, Loadout loadout, boolean isGlobal) {
         boolean hasLoadout = loadout != null && loadout.hasFinalItems();
 
         ItemStack item;
@@ -162,7 +323,7 @@ public class GuiManager implements Listener {
 
         if (hasLoadout) {
             // Try to use main weapon as icon
-            item = getLoadoutIconItem(loadout);
+            item = getCachedLoadoutIcon(loadout);
             if (item == null) {
                 // Fallback to glass pane
                 Material material = isGlobal ? Material.ORANGE_STAINED_GLASS_PANE : Material.LIME_STAINED_GLASS_PANE;
@@ -196,7 +357,7 @@ public class GuiManager implements Listener {
         List<Component> lore = new ArrayList<>();
         if (hasLoadout) {
             // Build equipment list lore
-            lore.addAll(buildLoadoutLore(loadout, isGlobal));
+            lore.addAll(getCachedLoadoutLore(loadout, isGlobal));
         } else {
             if (isGlobal) {
                 lore.add(Component.text("未設定", NamedTextColor.DARK_GRAY).decoration(TextDecoration.ITALIC, false));
@@ -225,22 +386,31 @@ public class GuiManager implements Listener {
         // Slot buttons (1-5)
         for (int i = 1; i <= MAX_SLOTS; i++) {
             Loadout loadout = loadoutManager.getLoadout(player.getUniqueId(), String.valueOf(i));
-            ItemStack slotItem = createEditSlotItem(i, loadout);
+            ItemStack slotItem = createEditSlotItem(player.getUniqueId(), i, loadout);
             inv.setItem(10 + i, slotItem);
         }
 
         // Fill empty slots (no back button - editing starts from here)
-        fillEmpty(inv, Material.GRAY_STAINED_GLASS_PANE);
+        fillEmpty(inv, grayFiller);
 
         player.openInventory(inv);
-        openGuis.put(player.getUniqueId(), GuiType.SLOT_SELECT);
+        guiSession(player.getUniqueId()).opened(GuiType.SLOT_SELECT);
     }
 
     /**
      * Create a loadout slot button item (for edit menu)
      * Uses the main weapon as icon and shows equipment list in lore.
      */
-    private ItemStack createEditSlotItem(int slotNumber, Loadout loadout) {
+    private ItemStack createEditSlotItem(UUID owner, int slotNumber, Loadout loadout) {
+        if (loadout != null && loadout.hasFinalItems()) {
+            return loadoutIcons.getRendered(loadout, wmIntegration.getCatalog().getGeneration(), "edit:" + slotNumber,
+                    l -> renderEditSlotItem(slotNumber, l));
+        }
+        loadoutIcons.invalidate(owner, String.valueOf(slotNumber));
+        return renderEditSlotItem(slotNumber, loadout);
+    }
+
+    private ItemStack renderEditSlotItem(int slotNumber, Loadout loadout) {
         boolean hasLoadout = loadout != null && loadout.hasFinalItems();
 
         ItemStack item;
@@ -248,7 +418,7 @@ public class GuiManager implements Listener {
 
         if (hasLoadout) {
             // Try to use main weapon as icon
-            item = getLoadoutIconItem(loadout);
+            item = getCachedLoadoutIcon(loadout);
             if (item == null) {
                 // Fallback to book
                 item = new ItemStack(Material.WRITTEN_BOOK);
@@ -268,7 +438,7 @@ public class GuiManager implements Listener {
         List<Component> lore = new ArrayList<>();
         if (hasLoadout) {
             // Build equipment list lore
-            lore.addAll(buildLoadoutLore(loadout, false));
+            lore.addAll(getCachedLoadoutLore(loadout, false));
             lore.add(Component.empty());
             lore.add(Component.text("クリックして編集開始", NamedTextColor.YELLOW).decoration(TextDecoration.ITALIC, false));
             lore.add(Component.text("（既存データを上書き）", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false));
@@ -365,6 +535,7 @@ public class GuiManager implements Listener {
         Inventory inv = Bukkit.createInventory(null, size,
                 LegacyComponentSerializer.legacyAmpersand()
                         .deserialize(title + " (スロット" + session.getEditingSlotNumber() + ")"));
+        ItemStack[] contents = categoryMenuTemplate.copyContents();
 
         // Layout weapon slots in top rows (row 2 and row 4)
         Map<String, LoadoutsConfig.SlotConfig> slots = config.getSlots();
@@ -379,7 +550,7 @@ public class GuiManager implements Listener {
             LoadoutsConfig.SlotConfig slotConfig = entry.getValue();
 
             ItemStack icon = createSlotIcon(slotKey, slotConfig, session);
-            inv.setItem(slotPositions[i], icon);
+            contents[slotPositions[i]] = icon;
             i++;
         }
 
@@ -397,32 +568,16 @@ public class GuiManager implements Listener {
             LoadoutsConfig.AttachmentSlotConfig slotConfig = entry.getValue();
 
             ItemStack icon = createAttachmentSlotIcon(slotKey, slotConfig, session);
-            inv.setItem(attachmentPositions[j], icon);
+            contents[attachmentPositions[j]] = icon;
             j++;
         }
 
-        // Confirm button at bottom center
-        inv.setItem(49, createConfirmButton(session));
-
-        // Back button
-        inv.setItem(45, createNavigationItem(Material.ARROW, "&7戻る"));
-
-        // Rename button (name tag at slot 53)
-        ItemStack renameItem = new ItemStack(Material.NAME_TAG);
-        ItemMeta renameMeta = renameItem.getItemMeta();
-        renameMeta.displayName(Component.text("名前の変更", NamedTextColor.YELLOW)
-                .decorate(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false));
-        renameMeta.lore(List.of(
-                Component.text("クリックしてチャットで名前を入力", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false),
-                Component.text("カラーコード(&)使用可能", NamedTextColor.AQUA).decoration(TextDecoration.ITALIC, false)));
-        renameItem.setItemMeta(renameMeta);
-        inv.setItem(53, renameItem);
-
-        // Fill empty slots with glass
-        fillEmpty(inv, Material.GRAY_STAINED_GLASS_PANE);
+        // Confirm button at bottom center (back/rename buttons and fillers come from the template)
+        contents[49] = createConfirmButton(session);
+        inv.setContents(contents);
 
         player.openInventory(inv);
-        openGuis.put(player.getUniqueId(), GuiType.CATEGORY_MENU);
+        guiSession(player.getUniqueId()).opened(GuiType.CATEGORY_MENU);
     }
 
     /**
@@ -437,6 +592,7 @@ public class GuiManager implements Listener {
 
         session.setCurrentSlotType(slotType);
         session.setCurrentPage(0);
+        session.setSearchQuery(null);
 
         updateWeaponSelectMenu(player, session);
     }
@@ -448,18 +604,43 @@ public class GuiManager implements Listener {
         String slotType = session.getCurrentSlotType();
         int page = session.getCurrentPage();
 
-        // Get weapons for this slot
-        List<String> weapons = wmIntegration.getFlatWeaponsForSlot(slotType);
+        // Get weapons for this slot (precomputed with the catalog), or the search
+        // results (computed once per query, page changes reuse them)
+        String searchQuery = session.getSearchQuery();
+        List<String> weapons;
+        if (searchQuery == null) {
+            weapons = wmIntegration.getSlotWeapons(slotType).asList();
+        } else {
+            long generation = wmIntegration.getCatalog().getGeneration();
+            weapons = session.getSearchResults(generation);
+            if (weapons == null) {
+                weapons = wmIntegration.searchWeaponsForSlot(slotType, searchQuery);
+                session.setSearchResults(weapons, generation);
+            }
+        }
 
         // Debug log
-        plugin.getLogger().info("Weapon select for " + slotType + ": " + weapons.size() + " weapons found");
+        plugin.getLogger().fine("Weapon select for " + slotType + ": " + weapons.size() + " weapons found");
 
         // Add custom items for this slot
         List<LoadoutsConfig.CustomItemConfig> customItems = config.getCustomItemsForSlot(slotType);
+        if (searchQuery != null) {
+            String lowerQuery = searchQuery.toLowerCase();
+            customItems = customItems.stream()
+                    .filter(item -> item.key().toLowerCase().contains(lowerQuery)
+                            || net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText()
+                                    .serialize(item.getDisplayNameComponent()).toLowerCase().contains(lowerQuery))
+                    .toList();
+        }
 
         int itemsPerPage = config.getItemsPerPage();
         int totalItems = weapons.size() + customItems.size();
         int maxPages = Math.max(1, (int) Math.ceil((double) totalItems / itemsPerPage));
+        if (page >= maxPages) {
+            // Coalesced page clicks may overshoot the last page
+            page = maxPages - 1;
+            session.setCurrentPage(page);
+        }
 
         LoadoutsConfig.SlotConfig slotConfig = config.getSlot(slotType);
         String categoryName = slotConfig != null ? slotConfig.displayName() : slotType;
@@ -469,87 +650,71 @@ public class GuiManager implements Listener {
                 .replace("%page%", String.valueOf(page + 1))
                 .replace("%max%", String.valueOf(maxPages));
 
-        Inventory inv = Bukkit.createInventory(null, 54,
-                LegacyComponentSerializer.legacyAmpersand().deserialize(title));
+        ItemStack[] contents = weaponSelectTemplate.copyContents();
 
         // Show message if no weapons
         if (totalItems == 0) {
-            ItemStack noItems = new ItemStack(Material.BARRIER);
-            ItemMeta meta = noItems.getItemMeta();
-            meta.displayName(Component.text("武器が見つかりません", NamedTextColor.RED)
-                    .decoration(TextDecoration.ITALIC, false));
-            meta.lore(List.of(
-                    Component.text("このカテゴリには武器がありません", NamedTextColor.GRAY)
-                            .decoration(TextDecoration.ITALIC, false),
-                    Component.text("WeaponMechanicsの設定を確認してください", NamedTextColor.GRAY)
-                            .decoration(TextDecoration.ITALIC, false)));
-            noItems.setItemMeta(meta);
-            inv.setItem(22, noItems);
+            if (searchQuery != null) {
+                ItemStack noItems = new ItemStack(Material.BARRIER);
+                ItemMeta meta = noItems.getItemMeta();
+                meta.displayName(Component.text("武器が見つかりません", NamedTextColor.RED)
+                        .decoration(TextDecoration.ITALIC, false));
+                meta.lore(List.of(
+                        Component.text("\"" + searchQuery + "\" に一致する武器はありません", NamedTextColor.GRAY)
+                                .decoration(TextDecoration.ITALIC, false)));
+                noItems.setItemMeta(meta);
+                contents[22] = noItems;
+            } else {
+                contents[22] = noWeaponsItem;
+            }
         } else {
             // Calculate pagination
             int startIndex = page * itemsPerPage;
             int endIndex = Math.min(startIndex + itemsPerPage, totalItems);
 
-            // Add items
+            // Add items - weapons on this page first, then custom items
             int slot = 0;
-            for (int i = startIndex; i < endIndex && slot < 45; i++) {
-                if (i < weapons.size()) {
-                    // WM Weapon
-                    String weaponTitle = weapons.get(i);
-                    ItemStack weaponItem = createWeaponIcon(weaponTitle, session);
-                    if (weaponItem != null) {
-                        inv.setItem(slot, weaponItem);
-                        slot++;
-                    }
-                } else {
-                    // Custom item
-                    int customIndex = i - weapons.size();
-                    if (customIndex < customItems.size()) {
-                        LoadoutsConfig.CustomItemConfig customItem = customItems.get(customIndex);
-                        ItemStack customIcon = createCustomItemIcon(customItem, session);
-                        inv.setItem(slot, customIcon);
-                        slot++;
-                    }
+            for (String weaponTitle : weapons.subList(Math.min(startIndex, weapons.size()),
+                    Math.min(endIndex, weapons.size()))) {
+                ItemStack weaponItem = createWeaponIcon(weaponTitle, session);
+                if (weaponItem != null && slot < 45) {
+                    contents[slot] = weaponItem;
+                    slot++;
+                }
+            }
+            for (int i = Math.max(startIndex, weapons.size()); i < endIndex && slot < 45; i++) {
+                // Custom item
+                int customIndex = i - weapons.size();
+                if (customIndex < customItems.size()) {
+                    LoadoutsConfig.CustomItemConfig customItem = customItems.get(customIndex);
+                    ItemStack customIcon = createCustomItemIcon(customItem, session);
+                    contents[slot] = customIcon;
+                    slot++;
                 }
             }
         }
 
-        // Navigation row (bottom)
-        // Back button
-        inv.setItem(45, createNavigationItem(Material.ARROW, "&7戻る"));
-
+        // Navigation row (bottom) - back, none button and fillers come from the template
         // Previous page
         if (page > 0) {
-            inv.setItem(48, createNavigationItem(Material.ARROW, "&e← 前のページ"));
+            contents[48] = prevPageItem;
+        }
+
+        // Search button, and a reset button while a search is active
+        contents[46] = searchQuery != null ? createSearchItem(searchQuery) : searchItem;
+        if (searchQuery != null) {
+            contents[47] = clearSearchItem;
         }
 
         // Page indicator
-        inv.setItem(49, createPageIndicator(page + 1, maxPages));
+        contents[49] = createPageIndicator(page + 1, maxPages);
 
         // Next page
         if (page < maxPages - 1) {
-            inv.setItem(50, createNavigationItem(Material.ARROW, "&e次のページ →"));
+            contents[50] = nextPageItem;
         }
 
-        // None button (clear selection) at slot 53
-        ItemStack noneItem = new ItemStack(Material.BARRIER);
-        ItemMeta noneMeta = noneItem.getItemMeta();
-        noneMeta.displayName(Component.text("選択なし", NamedTextColor.RED)
-                .decorate(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false));
-        noneMeta.lore(List.of(
-                Component.text("クリックして選択を解除", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false)));
-        noneItem.setItemMeta(noneMeta);
-        inv.setItem(53, noneItem);
-
-        // Fill remaining bottom row
-        for (int i = 45; i < 54; i++) {
-            if (inv.getItem(i) == null) {
-                inv.setItem(i, createFillerItem(Material.BLACK_STAINED_GLASS_PANE));
-            }
-        }
-
-        player.openInventory(inv);
-        openGuis.put(player.getUniqueId(), GuiType.WEAPON_SELECT);
+        showSelectMenu(player, GuiType.WEAPON_SELECT, title, contents);
     }
 
     // ==================== Attachment Selection Menu ====================
@@ -585,88 +750,161 @@ public class GuiManager implements Listener {
         }
 
         // Get attachments for this slot's categories
-        List<String> attachments = wmIntegration.getAttachmentsForCategories(slotConfig.categories());
+        AttachmentSlotIcons slotIcons = getAttachmentSlotIcons(slotKey, slotConfig, getAttachmentWeapon(session));
+        List<String> attachments = slotIcons.attachments();
 
-        plugin.getLogger().info("Attachment select for " + slotKey + ": " + attachments.size() + " attachments found");
+        plugin.getLogger().fine("Attachment select for " + slotKey + ": " + attachments.size() + " attachments found");
 
         int itemsPerPage = config.getItemsPerPage();
         int maxPages = Math.max(1, (int) Math.ceil((double) attachments.size() / itemsPerPage));
+        if (page >= maxPages) {
+            // Coalesced page clicks may overshoot the last page
+            page = maxPages - 1;
+            session.setCurrentPage(page);
+        }
 
         String title = "&8&lアタッチメント選択 - " + slotConfig.displayName();
-        Inventory inv = Bukkit.createInventory(null, 54,
-                LegacyComponentSerializer.legacyAmpersand().deserialize(title));
+        ItemStack[] contents = attachmentSelectTemplate.copyContents();
 
         if (attachments.isEmpty()) {
             // No attachments message
-            ItemStack noItems = new ItemStack(Material.BARRIER);
-            ItemMeta meta = noItems.getItemMeta();
-            meta.displayName(Component.text("アタッチメントがありません", NamedTextColor.RED)
-                    .decoration(TextDecoration.ITALIC, false));
-            meta.lore(List.of(
-                    Component.text("このカテゴリにはアタッチメントがありません", NamedTextColor.GRAY)
-                            .decoration(TextDecoration.ITALIC, false)));
-            noItems.setItemMeta(meta);
-            inv.setItem(22, noItems);
+            contents[22] = noAttachmentsItem;
         } else {
             // Calculate pagination
             int startIndex = page * itemsPerPage;
             int endIndex = Math.min(startIndex + itemsPerPage, attachments.size());
 
-            // Add attachment items
+            // Add attachment items; only the selected one needs its own icon
+            String selected = session.getAttachment(slotKey);
+            ItemStack[] icons = slotIcons.icons();
             int slot = 0;
             for (int i = startIndex; i < endIndex && slot < 45; i++) {
                 String attachmentId = attachments.get(i);
-                ItemStack attachmentItem = createAttachmentIcon(attachmentId, session);
-                if (attachmentItem != null) {
-                    inv.setItem(slot, attachmentItem);
-                    slot++;
+                if (attachmentId.equals(selected)) {
+                    contents[slot++] = createAttachmentIcon(attachmentId, true);
+                    continue;
                 }
+                if (icons[i] == null) {
+                    icons[i] = createAttachmentIcon(attachmentId, false);
+                }
+                contents[slot++] = icons[i];
             }
         }
 
-        // Navigation row (bottom)
-        // Back button
-        inv.setItem(45, createNavigationItem(Material.ARROW, "&7戻る"));
-
+        // Navigation row (bottom) - back, none button and fillers come from the template
         // Previous page
         if (page > 0) {
-            inv.setItem(48, createNavigationItem(Material.ARROW, "&e← 前のページ"));
+            contents[48] = prevPageItem;
         }
 
         // Page indicator
-        int maxPagesDisplay = Math.max(1, (int) Math.ceil((double) attachments.size() / itemsPerPage));
-        inv.setItem(49, createPageIndicator(page + 1, maxPagesDisplay));
+        contents[49] = createPageIndicator(page + 1, maxPages);
 
         // Next page
         if (page < maxPages - 1) {
-            inv.setItem(50, createNavigationItem(Material.ARROW, "&e次のページ →"));
+            contents[50] = nextPageItem;
         }
 
-        // None button (clear selection) at slot 53
-        ItemStack noneItem = new ItemStack(Material.BARRIER);
-        ItemMeta noneMeta = noneItem.getItemMeta();
-        noneMeta.displayName(Component.text("選択なし", NamedTextColor.RED)
-                .decorate(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false));
-        noneMeta.lore(List.of(
-                Component.text("クリックして選択を解除", NamedTextColor.GRAY).decoration(TextDecoration.ITALIC, false)));
-        noneItem.setItemMeta(noneMeta);
-        inv.setItem(53, noneItem);
+        showSelectMenu(player, GuiType.ATTACHMENT_SELECT, title, contents);
+    }
 
-        // Fill remaining bottom row
-        for (int i = 45; i < 54; i++) {
-            if (inv.getItem(i) == null) {
-                inv.setItem(i, createFillerItem(Material.BLACK_STAINED_GLASS_PANE));
+    /**
+     * Show a weapon/attachment select page. If the player already has that
+     * menu open (page change, search reset) its contents and title are
+     * replaced in place; otherwise a new inventory is opened.
+     */
+    private void showSelectMenu(Player player, GuiType type, String title, ItemStack[] contents) {
+        GuiSession guiSession = guiSession(player.getUniqueId());
+        InventoryView view = player.getOpenInventory();
+        Inventory top = view.getTopInventory();
+        if (guiSession.getOpenGui() == type && top.getHolder() == null
+                && top.getSize() == contents.length) {
+            top.setContents(contents);
+            String legacyTitle = LegacyComponentSerializer.legacySection()
+                    .serialize(LegacyComponentSerializer.legacyAmpersand().deserialize(title));
+            if (!legacyTitle.equals(view.getTitle())) {
+                view.setTitle(legacyTitle);
             }
+            return;
         }
 
+        Inventory inv = Bukkit.createInventory(null, contents.length,
+                LegacyComponentSerializer.legacyAmpersand().deserialize(title));
+        inv.setContents(contents);
+
+        if (guiSession.hasOpenGui()) {
+            // Replacing another of our menus must not trigger its close handling
+            guiSession.beginNavigation();
+        }
         player.openInventory(inv);
-        openGuis.put(player.getUniqueId(), GuiType.ATTACHMENT_SELECT);
+        guiSession(player.getUniqueId()).opened(type);
+    }
+
+    /**
+     * Get the attachments of an attachment slot that fit a weapon (all of them
+     * for a null weapon) with their icon cache, rebuilding it after a catalog
+     * rescan
+     */
+    private AttachmentSlotIcons getAttachmentSlotIcons(String slotKey, LoadoutsConfig.AttachmentSlotConfig slotConfig,
+            String weaponTitle) {
+        long catalogGeneration = wmIntegration.getCatalog().getGeneration();
+        AttachmentSlotKey key = new AttachmentSlotKey(slotKey, weaponTitle);
+        AttachmentSlotIcons slotIcons = attachmentSlotIcons.get(key);
+        if (slotIcons == null || slotIcons.catalogGeneration() != catalogGeneration) {
+            // Drop what earlier catalogs left behind for other slots and weapons
+            attachmentSlotIcons.values().removeIf(icons -> icons.catalogGeneration() != catalogGeneration);
+            List<String> attachments = wmIntegration.getAttachmentsForWeapon(slotConfig.categories(), weaponTitle);
+            slotIcons = new AttachmentSlotIcons(catalogGeneration, attachments, new ItemStack[attachments.size()]);
+            attachmentSlotIcons.put(key, slotIcons);
+        }
+        return slotIcons;
+    }
+
+    /**
+     * The weapon attachments are filtered for: the selected primary weapon,
+     * otherwise the secondary, otherwise none (no filter)
+     */
+    private String getAttachmentWeapon(LoadoutManager.LoadoutEditSession session) {
+        for (String slotType : new String[] { "primary", "secondary" }) {
+            LoadoutSlot slot = session.getSlot(slotType);
+            if (slot != null && slot.isWmWeapon()) {
+                return slot.getWeaponTitle();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * After a weapon slot changed: if the weapon the attachments are filtered
+     * for is now a different one, drop the selected attachments that do not
+     * fit it, so the loadout never keeps an attachment the menu would not offer
+     */
+    private void dropIncompatibleAttachments(Player player, LoadoutManager.LoadoutEditSession session,
+            String previousWeapon) {
+        String weaponTitle = getAttachmentWeapon(session);
+        if (weaponTitle == null || weaponTitle.equals(previousWeapon)) {
+            return; // No filter, or the same one as before
+        }
+        Iterator<Map.Entry<String, String>> it = session.getSelectedAttachments().entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> entry = it.next();
+            LoadoutsConfig.AttachmentSlotConfig slotConfig = config.getAttachmentSlot(entry.getKey());
+            if (slotConfig == null) {
+                continue;
+            }
+            List<String> fitting = wmIntegration.getAttachmentsForWeapon(slotConfig.categories(), weaponTitle);
+            if (Collections.binarySearch(fitting, entry.getValue()) < 0) {
+                it.remove();
+                player.sendMessage(Component.text(slotConfig.displayName() + " の " + entry.getValue()
+                        + " は " + weaponTitle + " に装着できないため解除しました", NamedTextColor.YELLOW));
+            }
+        }
     }
 
     /**
      * Create icon for an attachment in selection menu
      */
-    private ItemStack createAttachmentIcon(String attachmentId, LoadoutManager.LoadoutEditSession session) {
+    private ItemStack createAttachmentIcon(String attachmentId, boolean selected) {
         // Try to generate actual attachment item
         ItemStack item = wmIntegration.generateAttachmentItem(attachmentId);
         if (item == null) {
@@ -676,11 +914,7 @@ public class GuiManager implements Listener {
         ItemMeta meta = item.getItemMeta();
         List<Component> lore = meta.lore() != null ? new ArrayList<>(meta.lore()) : new ArrayList<>();
 
-        // Check if already selected for current slot
-        String currentSlot = session.getCurrentAttachmentSlot();
-        String selectedForSlot = session.getAttachment(currentSlot);
-
-        if (attachmentId.equals(selectedForSlot)) {
+        if (selected) {
             lore.add(Component.empty());
             lore.add(Component.text("✓ 選択中", NamedTextColor.GREEN).decoration(TextDecoration.ITALIC, false));
             meta.setEnchantmentGlintOverride(true);
@@ -690,6 +924,7 @@ public class GuiManager implements Listener {
         }
 
         meta.lore(lore);
+        buttons.tag(meta, GuiButtons.Action.SELECT_ATTACHMENT, attachmentId);
         item.setItemMeta(meta);
         return item;
     }
@@ -738,7 +973,6 @@ public class GuiManager implements Listener {
         for (LoadoutSlot slot : session.getSelectedSlots().values()) {
             if (slot.isWmWeapon()) {
                 String weaponTitle = slot.getWeaponTitle();
-                String category = wmIntegration.getWeaponCategory(weaponTitle);
 
                 // Check if weapon has ammo config (gun) or not (consumable)
                 if (wmIntegration.hasAmmoConfig(weaponTitle)) {
@@ -756,8 +990,7 @@ public class GuiManager implements Listener {
                     }
                 } else {
                     // Consumable without ammo (grenade, stim, knife, etc.)
-                    int amount = config.getItemAmount(weaponTitle, category);
-                    List<ItemStack> items = wmIntegration.generateConsumableItems(weaponTitle, amount);
+                    List<ItemStack> items = wmIntegration.generateConsumableItems(weaponTitle);
                     consumableItems.addAll(items);
                 }
             } else {
@@ -861,7 +1094,8 @@ public class GuiManager implements Listener {
         if (!(event.getWhoClicked() instanceof Player player))
             return;
 
-        GuiType guiType = openGuis.get(player.getUniqueId());
+        GuiSession guiSession = guiSessions.get(player.getUniqueId());
+        GuiType guiType = guiSession != null ? guiSession.getOpenGui() : null;
         if (guiType == null)
             return;
 
@@ -872,6 +1106,11 @@ public class GuiManager implements Listener {
             return;
         }
 
+        // Drop clicks beyond the rate limit before doing any work
+        if (!guiSession.tryClick(System.nanoTime(), config.getClicksPerSecond(), config.getClickBurst())) {
+            return;
+        }
+
         ItemStack clicked = event.getCurrentItem();
         if (clicked == null || clicked.getType() == Material.AIR)
             return;
@@ -879,9 +1118,9 @@ public class GuiManager implements Listener {
         switch (guiType) {
             case MAIN_MENU -> handleMainMenuClick(player, event.getSlot(), clicked, event.isRightClick());
             case SLOT_SELECT -> handleSlotSelectClick(player, event.getSlot(), clicked);
-            case CATEGORY_MENU -> handleCategoryMenuClick(player, event.getSlot(), clicked);
-            case WEAPON_SELECT -> handleWeaponSelectClick(player, event.getSlot(), clicked);
-            case ATTACHMENT_SELECT -> handleAttachmentSelectClick(player, event.getSlot(), clicked);
+            case CATEGORY_MENU -> handleCategoryMenuClick(player, clicked);
+            case WEAPON_SELECT -> handleWeaponSelectClick(player, clicked);
+            case ATTACHMENT_SELECT -> handleAttachmentSelectClick(player, clicked);
         }
     }
 
@@ -946,217 +1185,188 @@ public class GuiManager implements Listener {
         }
     }
 
-    private void handleCategoryMenuClick(Player player, int slot, ItemStack clicked) {
+    private void handleCategoryMenuClick(Player player, ItemStack clicked) {
         LoadoutManager.LoadoutEditSession session = loadoutManager.getEditSession(player.getUniqueId());
-        if (session == null)
-            return;
-
-        // Back button
-        if (slot == 45) {
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed
-            openSlotSelectionMenu(player);
+        GuiButtons.Button button = buttons.read(clicked);
+        if (session == null || button == null)
             return;
-        }
-
-        // Rename button (slot 53)
-        if (slot == 53) {
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed
-            awaitingRename.add(player.getUniqueId());
-            player.closeInventory();
-            player.sendMessage(
-                    Component.text("=== ロードアウト名を入力してください ===", NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
-            player.sendMessage(Component.text("カラーコード(&)使用可能。キャンセルするには 'cancel' と入力。", NamedTextColor.GRAY));
-            return;
-        }
 
-        // Check if confirm button
-        if (slot == 49) {
-            if (!session.getSelectedSlots().isEmpty()) {
-                grantSelectedItems(player);
+        switch (button.action()) {
+            case BACK -> {
+                guiSession(player.getUniqueId()).beginNavigation(); // Prevent ESC auto-proceed
+                openSlotSelectionMenu(player);
             }
-            return;
-        }
-
-        // Check weapon slot positions
-        int[] slotPositions = { 10, 12, 14, 16, 28, 30, 32, 34 };
-        Map<String, LoadoutsConfig.SlotConfig> slots = config.getSlots();
-
-        int i = 0;
-        for (String slotKey : slots.keySet()) {
-            if (i < slotPositions.length && slotPositions[i] == slot) {
-                isNavigating.add(player.getUniqueId());
-                openWeaponSelectMenu(player, slotKey);
-                return;
+            case RENAME -> {
+                guiSession(player.getUniqueId()).beginNavigation(); // Prevent ESC auto-proceed
+                guiSession(player.getUniqueId()).awaitChatInput(GuiSession.ChatInput.RENAME);
+                player.closeInventory();
+                player.sendMessage(
+                        Component.text("=== ロードアウト名を入力してください ===", NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
+                player.sendMessage(Component.text("カラーコード(&)使用可能。キャンセルするには 'cancel' と入力。", NamedTextColor.GRAY));
             }
-            i++;
-        }
-
-        // Check attachment slot positions (row 3: 19-23)
-        int[] attachmentPositions = { 19, 20, 21, 22, 23 };
-        Map<String, LoadoutsConfig.AttachmentSlotConfig> attachmentSlots = config.getAttachmentSlots();
-
-        int j = 0;
-        for (String slotKey : attachmentSlots.keySet()) {
-            if (j < attachmentPositions.length && attachmentPositions[j] == slot) {
-                isNavigating.add(player.getUniqueId());
-                openAttachmentSelectMenu(player, slotKey);
-                return;
+            case CONFIRM -> {
+                if (!session.getSelectedSlots().isEmpty()) {
+                    grantSelectedItems(player);
+                }
+            }
+            case OPEN_WEAPON_SLOT -> {
+                guiSession(player.getUniqueId()).beginNavigation();
+                openWeaponSelectMenu(player, button.id());
+            }
+            case OPEN_ATTACHMENT_SLOT -> {
+                guiSession(player.getUniqueId()).beginNavigation();
+                openAttachmentSelectMenu(player, button.id());
+            }
+            default -> {
             }
-            j++;
         }
     }
 
-    private void handleWeaponSelectClick(Player player, int slot, ItemStack clicked) {
+    private void handleWeaponSelectClick(Player player, ItemStack clicked) {
         LoadoutManager.LoadoutEditSession session = loadoutManager.getEditSession(player.getUniqueId());
-        if (session == null)
-            return;
-
-        // Navigation buttons
-        if (slot == 45) {
-            // Back button
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed
-            openCategoryMenu(player, session.getEditingSlotNumber());
-            return;
-        }
-
-        if (slot == 48 && session.getCurrentPage() > 0) {
-            // Previous page
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed during page change
-            session.setCurrentPage(session.getCurrentPage() - 1);
-            updateWeaponSelectMenu(player, session);
-            return;
-        }
-
-        if (slot == 50) {
-            // Next page
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed during page change
-            session.setCurrentPage(session.getCurrentPage() + 1);
-            updateWeaponSelectMenu(player, session);
-            return;
-        }
-
-        // None button - clear selection
-        if (slot == 53) {
-            String slotType = session.getCurrentSlotType();
-            session.removeSlot(slotType);
-            player.sendMessage(
-                    Component.text(config.getSlot(slotType).displayName() + " の選択を解除しました", NamedTextColor.YELLOW));
-            isNavigating.add(player.getUniqueId());
-            openCategoryMenu(player, session.getEditingSlotNumber());
+        GuiButtons.Button button = buttons.read(clicked);
+        if (session == null || button == null)
             return;
-        }
 
-        // Weapon selection (slots 0-44)
-        if (slot >= 0 && slot < 45) {
-            String weaponTitle = wmIntegration.getWeaponTitle(clicked);
-            if (weaponTitle != null) {
+        switch (button.action()) {
+            case BACK -> {
+                guiSession(player.getUniqueId()).beginNavigation(); // Prevent ESC auto-proceed
+                openCategoryMenu(player, session.getEditingSlotNumber());
+            }
+            case SEARCH -> {
+                // Ask for the query in chat
+                guiSession(player.getUniqueId()).beginNavigation(); // Prevent ESC auto-proceed
+                guiSession(player.getUniqueId()).awaitChatInput(GuiSession.ChatInput.SEARCH);
+                player.closeInventory();
+                player.sendMessage(
+                        Component.text("=== 検索する武器名を入力してください ===", NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
+                player.sendMessage(Component.text("名前の一部でも検索できます。キャンセルするには 'cancel' と入力。", NamedTextColor.GRAY));
+            }
+            case CLEAR_SEARCH -> {
+                // Reset search (updated in place)
+                session.setSearchQuery(null);
+                session.setCurrentPage(0);
+                scheduleSelectMenuRender(player, GuiType.WEAPON_SELECT);
+            }
+            case PREV_PAGE -> {
+                session.setCurrentPage(Math.max(0, session.getCurrentPage() - 1));
+                scheduleSelectMenuRender(player, GuiType.WEAPON_SELECT);
+            }
+            case NEXT_PAGE -> {
+                session.setCurrentPage(session.getCurrentPage() + 1);
+                scheduleSelectMenuRender(player, GuiType.WEAPON_SELECT);
+            }
+            case CLEAR_SELECTION -> {
+                String slotType = session.getCurrentSlotType();
+                String previousWeapon = getAttachmentWeapon(session);
+                session.removeSlot(slotType);
+                player.sendMessage(
+                        Component.text(config.getSlot(slotType).displayName() + " の選択を解除しました", NamedTextColor.YELLOW));
+                dropIncompatibleAttachments(player, session, previousWeapon);
+                guiSession(player.getUniqueId()).beginNavigation();
+                openCategoryMenu(player, session.getEditingSlotNumber());
+            }
+            case SELECT_WEAPON -> {
+                String weaponTitle = button.id();
                 String slotType = session.getCurrentSlotType();
                 String category = wmIntegration.getWeaponCategory(weaponTitle);
                 int ammo = wmIntegration.calculateAmmo(weaponTitle);
-
-                LoadoutSlot loadoutSlot = new LoadoutSlot(slotType, weaponTitle, category, ammo);
-                session.setSlot(slotType, loadoutSlot);
-
-                // Send feedback
-                Map<String, String> placeholders = Map.of(
-                        "slot", config.getSlot(slotType).displayName(),
-                        "weapon", weaponTitle);
-                player.sendMessage(config.getMessageComponent("slot-selected", placeholders));
+                String previousWeapon = getAttachmentWeapon(session);
+                session.setSlot(slotType, new LoadoutSlot(slotType, weaponTitle, category, ammo));
+                sendSlotSelected(player, slotType, weaponTitle);
+                dropIncompatibleAttachments(player, session, previousWeapon);
 
                 // Go back to category menu
-                isNavigating.add(player.getUniqueId());
+                guiSession(player.getUniqueId()).beginNavigation();
                 openCategoryMenu(player, session.getEditingSlotNumber());
-            } else {
-                // Check for custom item
-                String customItemId = getCustomItemIdFromItem(clicked);
-                if (customItemId != null) {
-                    String slotType = session.getCurrentSlotType();
-                    LoadoutSlot loadoutSlot = new LoadoutSlot(slotType, customItemId, false);
-                    session.setSlot(slotType, loadoutSlot);
-
-                    Map<String, String> placeholders = Map.of(
-                            "slot", config.getSlot(slotType).displayName(),
-                            "weapon", customItemId);
-                    player.sendMessage(config.getMessageComponent("slot-selected", placeholders));
-
-                    isNavigating.add(player.getUniqueId());
-                    openCategoryMenu(player, session.getEditingSlotNumber());
-                }
             }
-        }
-    }
-
-    private void handleAttachmentSelectClick(Player player, int slot, ItemStack clicked) {
-        LoadoutManager.LoadoutEditSession session = loadoutManager.getEditSession(player.getUniqueId());
-        if (session == null)
-            return;
-
-        // Back button
-        if (slot == 45) {
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed
-            openCategoryMenu(player, session.getEditingSlotNumber());
-            return;
-        }
+            case SELECT_CUSTOM_ITEM -> {
+                String customItemId = button.id();
+                String slotType = session.getCurrentSlotType();
+                String previousWeapon = getAttachmentWeapon(session);
+                session.setSlot(slotType, new LoadoutSlot(slotType, customItemId, false));
+                sendSlotSelected(player, slotType, customItemId);
+                dropIncompatibleAttachments(player, session, previousWeapon);
 
-        // Previous page
-        if (slot == 48 && session.getCurrentPage() > 0) {
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed during page change
-            session.setCurrentPage(session.getCurrentPage() - 1);
-            updateAttachmentSelectMenu(player, session);
-            return;
+                guiSession(player.getUniqueId()).beginNavigation();
+                openCategoryMenu(player, session.getEditingSlotNumber());
+            }
+            default -> {
+            }
         }
+    }
 
-        // Next page
-        if (slot == 50) {
-            isNavigating.add(player.getUniqueId()); // Prevent ESC auto-proceed during page change
-            session.setCurrentPage(session.getCurrentPage() + 1);
-            updateAttachmentSelectMenu(player, session);
+    /**
+     * Redraw the open weapon/attachment select menu (in place) on the next
+     * tick. Page clicks until then only move the page, so a burst of them is
+     * drawn once, at the final page.
+     */
+    private void scheduleSelectMenuRender(Player player, GuiType type) {
+        GuiSession guiSession = guiSession(player.getUniqueId());
+        if (!guiSession.scheduleRender()) {
             return;
         }
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            guiSession.renderDone();
+            LoadoutManager.LoadoutEditSession session = loadoutManager.getEditSession(player.getUniqueId());
+            if (!player.isOnline() || session == null || guiSession.getOpenGui() != type) {
+                return; // Left the menu meanwhile
+            }
+            if (type == GuiType.WEAPON_SELECT) {
+                updateWeaponSelectMenu(player, session);
+            } else {
+                updateAttachmentSelectMenu(player, session);
+            }
+        });
+    }
 
-        // None button - clear attachment selection
-        if (slot == 53) {
-            String attachmentSlotKey = session.getCurrentAttachmentSlot();
-            session.removeAttachment(attachmentSlotKey);
-            player.sendMessage(Component.text(config.getAttachmentSlot(attachmentSlotKey).displayName() + " の選択を解除しました",
-                    NamedTextColor.YELLOW));
-            isNavigating.add(player.getUniqueId());
-            openCategoryMenu(player, session.getEditingSlotNumber());
-            return;
-        }
+    private void sendSlotSelected(Player player, String slotType, String itemId) {
+        Map<String, String> placeholders = Map.of(
+                "slot", config.getSlot(slotType).displayName(),
+                "weapon", itemId);
+        player.sendMessage(config.getMessageComponent("slot-selected", placeholders));
+    }
 
-        // Skip other bottom row navigation
-        if (slot >= 45) {
+    private void handleAttachmentSelectClick(Player player, ItemStack clicked) {
+        LoadoutManager.LoadoutEditSession session = loadoutManager.getEditSession(player.getUniqueId());
+        GuiButtons.Button button = buttons.read(clicked);
+        if (session == null || button == null)
             return;
-        }
 
-        // Attachment selection (slots 0-44)
-        if (slot < 45) {
-            String attachmentSlotKey = session.getCurrentAttachmentSlot();
-            LoadoutsConfig.AttachmentSlotConfig slotConfig = config.getAttachmentSlot(attachmentSlotKey);
-            if (slotConfig == null)
-                return;
-
-            // Get attachments for this slot
-            List<String> attachments = wmIntegration.getAttachmentsForCategories(slotConfig.categories());
-
-            int page = session.getCurrentPage();
-            int itemsPerPage = config.getItemsPerPage();
-            int index = page * itemsPerPage + slot;
-
-            if (index < attachments.size()) {
-                String attachmentId = attachments.get(index);
-
-                // Set selected attachment
-                session.setAttachment(attachmentSlotKey, attachmentId);
+        switch (button.action()) {
+            case BACK -> {
+                guiSession(player.getUniqueId()).beginNavigation(); // Prevent ESC auto-proceed
+                openCategoryMenu(player, session.getEditingSlotNumber());
+            }
+            case PREV_PAGE -> {
+                session.setCurrentPage(Math.max(0, session.getCurrentPage() - 1));
+                scheduleSelectMenuRender(player, GuiType.ATTACHMENT_SELECT);
+            }
+            case NEXT_PAGE -> {
+                session.setCurrentPage(session.getCurrentPage() + 1);
+                scheduleSelectMenuRender(player, GuiType.ATTACHMENT_SELECT);
+            }
+            case CLEAR_SELECTION -> {
+                String attachmentSlotKey = session.getCurrentAttachmentSlot();
+                session.removeAttachment(attachmentSlotKey);
+                player.sendMessage(Component.text(config.getAttachmentSlot(attachmentSlotKey).displayName() + " の選択を解除しました",
+                        NamedTextColor.YELLOW));
+                guiSession(player.getUniqueId()).beginNavigation();
+                openCategoryMenu(player, session.getEditingSlotNumber());
+            }
+            case SELECT_ATTACHMENT -> {
+                String attachmentId = button.id();
+                session.setAttachment(session.getCurrentAttachmentSlot(), attachmentId);
 
                 player.sendMessage(Component.text("アタッチメント選択: ", NamedTextColor.GREEN)
                         .append(Component.text(attachmentId, NamedTextColor.YELLOW)));
 
                 // Go back to category menu
-                isNavigating.add(player.getUniqueId());
+                guiSession(player.getUniqueId()).beginNavigation();
                 openCategoryMenu(player, session.getEditingSlotNumber());
             }
+            default -> {
+            }
         }
     }
 
@@ -1167,12 +1377,18 @@ public class GuiManager implements Listener {
         }
 
         UUID playerUUID = player.getUniqueId();
-        GuiType closedGuiType = openGuis.get(playerUUID);
+        GuiSession guiSession = guiSessions.get(playerUUID);
+        if (guiSession == null) {
+            return; // Never opened one of our menus
+        }
+
+        // Clean up GUI tracking
+        GuiType closedGuiType = guiSession.closed();
 
         // Debug logging
         String invTitle = event.getView().getTitle();
         boolean isLoadoutSelectionMenu = event.getInventory().getHolder() instanceof LoadoutSelectionHolder;
-        boolean isInForceMode = selectingLoadoutPlayers.contains(playerUUID);
+        boolean isInForceMode = guiSession.isForceSelection();
 
         plugin.getLogger().info("[DEBUG] InventoryCloseEvent fired for " + player.getName());
         plugin.getLogger().info("[DEBUG]   Title: " + invTitle);
@@ -1180,11 +1396,8 @@ public class GuiManager implements Listener {
         plugin.getLogger().info("[DEBUG]   IsLoadoutSelectionHolder: " + isLoadoutSelectionMenu);
         plugin.getLogger().info("[DEBUG]   IsInForceMode: " + isInForceMode);
 
-        // Clean up GUI tracking
-        openGuis.remove(playerUUID);
-
         // === Check if this is intentional navigation (back button, rename, etc.) ===
-        if (isNavigating.remove(playerUUID)) {
+        if (guiSession.endNavigation()) {
             plugin.getLogger().info("[DEBUG]   -> Intentional navigation, skipping auto-proceed");
             return; // Skip auto-proceed, player is navigating to another menu
         }
@@ -1214,20 +1427,20 @@ public class GuiManager implements Listener {
         // reopen it (with cooldown to prevent rapid loops from TP etc.)
         if (isLoadoutSelectionMenu && isInForceMode) {
             long now = System.currentTimeMillis();
-            Long lastOpen = lastMenuOpen.get(playerUUID);
+            long lastOpen = guiSession.getLastForcedReopen();
 
             // Check cooldown to prevent rapid reopening loop
-            if (lastOpen != null && (now - lastOpen) < MENU_REOPEN_COOLDOWN_MS) {
+            if (lastOpen != 0 && (now - lastOpen) < MENU_REOPEN_COOLDOWN_MS) {
                 // Too soon - just remove from force mode and don't reopen
-                selectingLoadoutPlayers.remove(playerUUID);
+                guiSession.setForceSelection(false);
                 return;
             }
 
             // Use scheduler to reopen 1 tick later (cannot open inventory during close
             // event)
             Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (player.isOnline() && selectingLoadoutPlayers.contains(playerUUID)) {
-                    lastMenuOpen.put(playerUUID, System.currentTimeMillis());
+                if (player.isOnline() && guiSession.isForceSelection()) {
+                    guiSession.setLastForcedReopen(System.currentTimeMillis());
                     openMainMenu(player, true); // Reopen in force mode (silently)
                 }
             }, 1L);
@@ -1237,10 +1450,10 @@ public class GuiManager implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         UUID uuid = event.getPlayer().getUniqueId();
-        openGuis.remove(uuid);
-        selectingLoadoutPlayers.remove(uuid); // Cleanup force-selection tracking
-        isNavigating.remove(uuid);
-        awaitingRename.remove(uuid);
+        guiSessions.remove(uuid); // Open menu, force-selection, pending chat input
+        mainMenuCache.remove(uuid);
+        loadoutIcons.invalidateOwner(uuid);
+        playerHeads.invalidate(uuid);
         loadoutManager.endEditSession(uuid);
         loadoutManager.clearCache(uuid);
     }
@@ -1250,12 +1463,22 @@ public class GuiManager implements Listener {
         Player player = event.getPlayer();
         UUID uuid = player.getUniqueId();
 
-        if (!awaitingRename.contains(uuid)) {
+        GuiSession guiSession = guiSessions.get(uuid);
+        if (guiSession == null) {
+            return;
+        }
+
+        // Taken atomically, so one message answers at most one prompt
+        GuiSession.ChatInput input = guiSession.takeChatInput();
+        if (input == GuiSession.ChatInput.SEARCH) {
+            handleSearchInput(event, player);
+            return;
+        }
+        if (input != GuiSession.ChatInput.RENAME) {
             return;
         }
 
         event.setCancelled(true);
-        awaitingRename.remove(uuid);
 
         // Get raw message content
         String message = net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText()
@@ -1288,9 +1511,17 @@ public class GuiManager implements Listener {
             Loadout loadout = loadoutManager.getLoadout(targetUUID, String.valueOf(session.getEditingSlotNumber()));
 
             if (loadout != null) {
-                loadout.setDisplayName(coloredName);
-                loadoutManager.saveLoadout(loadout);
-                player.sendMessage(Component.text("ロードアウト名を \"" + message + "\" に変更しました！", NamedTextColor.GREEN));
+                loadoutManager.renameLoadout(loadout, coloredName)
+                        .thenAccept(success -> {
+                            Bukkit.getScheduler().runTask(plugin, () -> {
+                                if (success) {
+                                    player.sendMessage(Component.text("ロードアウト名を \"" + message + "\" に変更しました！",
+                                            NamedTextColor.GREEN));
+                                } else {
+                                    player.sendMessage(Component.text("名前の変更に失敗しました。", NamedTextColor.RED));
+                                }
+                            });
+                        });
             } else {
                 player.sendMessage(Component.text("ロードアウトをまず保存してから名前を変更してください。", NamedTextColor.YELLOW));
             }
@@ -1300,8 +1531,43 @@ public class GuiManager implements Listener {
         });
     }
 
+    /**
+     * Chat input for the weapon search. An empty result is still shown, so the
+     * player sees that nothing matched.
+     */
+    private void handleSearchInput(io.papermc.paper.event.player.AsyncChatEvent event, Player player) {
+        UUID uuid = player.getUniqueId();
+        event.setCancelled(true);
+
+        String message = net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText()
+                .serialize(event.message()).trim();
+
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            LoadoutManager.LoadoutEditSession session = loadoutManager.getEditSession(uuid);
+            if (session == null || !player.isOnline() || session.getCurrentSlotType() == null)
+                return;
+
+            if (message.equalsIgnoreCase("cancel") || message.isEmpty()) {
+                player.sendMessage(Component.text("検索をキャンセルしました。", NamedTextColor.YELLOW));
+            } else {
+                session.setSearchQuery(message);
+                session.setCurrentPage(0);
+            }
+            updateWeaponSelectMenu(player, session);
+        });
+    }
+
     // ==================== Helper Methods ====================
 
+    private ItemStack getCachedLoadoutIcon(Loadout loadout) {
+        return loadoutIcons.getIcon(loadout, wmIntegration.getCatalog().getGeneration(), this::getLoadoutIconItem);
+    }
+
+    private List<Component> getCachedLoadoutLore(Loadout loadout, boolean isGlobal) {
+        return loadoutIcons.getLore(loadout, isGlobal, wmIntegration.getCatalog().getGeneration(),
+                l -> buildLoadoutLore(l, isGlobal));
+    }
+
     /**
      * Get the main weapon item to use as loadout icon.
      * Tries primary slot first, then secondary, otherwise returns null.
@@ -1316,7 +1582,7 @@ public class GuiManager implements Listener {
         if (primarySlot != null && primarySlot.isWmWeapon()) {
             ItemStack weapon = wmIntegration.generateWeapon(primarySlot.getWeaponTitle());
             if (weapon != null) {
-                return weapon.clone();
+                return weapon;
             }
         }
 
@@ -1325,7 +1591,7 @@ public class GuiManager implements Listener {
         if (secondarySlot != null && secondarySlot.isWmWeapon()) {
             ItemStack weapon = wmIntegration.generateWeapon(secondarySlot.getWeaponTitle());
             if (weapon != null) {
-                return weapon.clone();
+                return weapon;
             }
         }
 
@@ -1334,7 +1600,7 @@ public class GuiManager implements Listener {
             if (slot.isWmWeapon()) {
                 ItemStack weapon = wmIntegration.generateWeapon(slot.getWeaponTitle());
                 if (weapon != null) {
-                    return weapon.clone();
+                    return weapon;
                 }
             }
         }
@@ -1504,6 +1770,7 @@ public class GuiManager implements Listener {
             meta.lore(lore);
         }
 
+        buttons.tag(meta, GuiButtons.Action.OPEN_WEAPON_SLOT, slotKey);
         item.setItemMeta(meta);
         return item;
     }
@@ -1560,6 +1827,7 @@ public class GuiManager implements Listener {
             meta.lore(lore);
         }
 
+        buttons.tag(meta, GuiButtons.Action.OPEN_ATTACHMENT_SLOT, slotKey);
         item.setItemMeta(meta);
         return item;
     }
@@ -1601,6 +1869,7 @@ public class GuiManager implements Listener {
                 .decoration(TextDecoration.ITALIC, false));
 
         meta.lore(lore);
+        buttons.tag(meta, GuiButtons.Action.SELECT_WEAPON, weaponTitle);
         weapon.setItemMeta(meta);
         return weapon;
     }
@@ -1621,6 +1890,7 @@ public class GuiManager implements Listener {
                 .decoration(TextDecoration.ITALIC, false));
 
         meta.lore(lore);
+        buttons.tag(meta, GuiButtons.Action.SELECT_CUSTOM_ITEM, customItem.key());
         item.setItemMeta(meta);
         return item;
     }
@@ -1662,6 +1932,7 @@ public class GuiManager implements Listener {
                     .decoration(TextDecoration.ITALIC, false));
         }
 
+        buttons.tag(meta, GuiButtons.Action.CONFIRM, null);
         item.setItemMeta(meta);
         return item;
     }
@@ -1675,6 +1946,24 @@ public class GuiManager implements Listener {
         return item;
     }
 
+    private ItemStack createSearchItem(String searchQuery) {
+        ItemStack item = new ItemStack(Material.COMPASS);
+        ItemMeta meta = item.getItemMeta();
+        meta.displayName(Component.text("武器を検索", NamedTextColor.AQUA)
+                .decoration(TextDecoration.ITALIC, false));
+        List<Component> lore = new ArrayList<>();
+        if (searchQuery != null) {
+            lore.add(Component.text("検索中: " + searchQuery, NamedTextColor.YELLOW)
+                    .decoration(TextDecoration.ITALIC, false));
+        }
+        lore.add(Component.text("クリックしてチャットで検索", NamedTextColor.GRAY)
+                .decoration(TextDecoration.ITALIC, false));
+        meta.lore(lore);
+        buttons.tag(meta, GuiButtons.Action.SEARCH, null);
+        item.setItemMeta(meta);
+        return item;
+    }
+
     private ItemStack createPageIndicator(int current, int max) {
         ItemStack item = new ItemStack(Material.PAPER);
         ItemMeta meta = item.getItemMeta();
@@ -1692,8 +1981,7 @@ public class GuiManager implements Listener {
         return item;
     }
 
-    private void fillEmpty(Inventory inv, Material material) {
-        ItemStack filler = createFillerItem(material);
+    private void fillEmpty(Inventory inv, ItemStack filler) {
         for (int i = 0; i < inv.getSize(); i++) {
             if (inv.getItem(i) == null) {
                 inv.setItem(i, filler);
@@ -1701,16 +1989,6 @@ public class GuiManager implements Listener {
         }
     }
 
-    private String getCustomItemIdFromItem(ItemStack item) {
-        // Match by material and display name
-        for (Map.Entry<String, LoadoutsConfig.CustomItemConfig> entry : config.getCustomItems().entrySet()) {
-            if (entry.getValue().material() == item.getType()) {
-                return entry.getKey();
-            }
-        }
-        return null;
-    }
-
     // ==================== Enums ====================
 
     public enum GuiType {
@@ -0,0 +1,129 @@
+package com.saratoga.loadouts.gui;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GUI state of one online player: which of our menus is open, whether the
+ * next close is a menu switch, forced loadout selection, pending chat input
+ * and click rate limiting. Everything except the chat input is only touched
+ * on the main thread; the chat input is also taken from the async chat
+ * thread, so it is atomic.
+ */
+final class GuiSession {
+
+    /**
+     * What the player's next chat message is for
+     */
+    enum ChatInput {
+        NONE, RENAME, SEARCH
+    }
+
+    private GuiManager.GuiType openGui;
+    private boolean navigating;
+    private volatile boolean forceSelection;
+    private long lastForcedReopen;
+    private boolean renderPending;
+    private final AtomicReference<ChatInput> chatInput = new AtomicReference<>(ChatInput.NONE);
+
+    // Click token bucket
+    private double clickTokens = -1; // Starts full on the first click
+    private long lastClickNanos;
+
+    GuiManager.GuiType getOpenGui() {
+        return openGui;
+    }
+
+    boolean hasOpenGui() {
+        return openGui != null;
+    }
+
+    void opened(GuiManager.GuiType type) {
+        openGui = type;
+    }
+
+    /**
+     * Record that the open menu was closed; returns the menu that was open
+     */
+    GuiManager.GuiType closed() {
+        GuiManager.GuiType closed = openGui;
+        openGui = null;
+        return closed;
+    }
+
+    /**
+     * The open menu is about to be replaced or closed on purpose (back
+     * button, rename, ...), so its close must not be handled as ESC
+     */
+    void beginNavigation() {
+        navigating = true;
+    }
+
+    /**
+     * Whether the close being handled was a navigation; resets the flag
+     */
+    boolean endNavigation() {
+        boolean wasNavigating = navigating;
+        navigating = false;
+        return wasNavigating;
+    }
+
+    boolean isForceSelection() {
+        return forceSelection;
+    }
+
+    void setForceSelection(boolean forceSelection) {
+        this.forceSelection = forceSelection;
+    }
+
+    long getLastForcedReopen() {
+        return lastForcedReopen;
+    }
+
+    void setLastForcedReopen(long lastForcedReopen) {
+        this.lastForcedReopen = lastForcedReopen;
+    }
+
+    /**
+     * Take a click token, refilling the bucket for the time since the last
+     * click. False if the player is clicking faster than allowed.
+     */
+    boolean tryClick(long nowNanos, double perSecond, int burst) {
+        if (clickTokens < 0) {
+            clickTokens = burst;
+        } else {
+            clickTokens = Math.min(burst, clickTokens + (nowNanos - lastClickNanos) * perSecond / 1_000_000_000.0);
+        }
+        lastClickNanos = nowNanos;
+        if (clickTokens < 1) {
+            return false;
+        }
+        clickTokens--;
+        return true;
+    }
+
+    /**
+     * Mark a re-render of the open menu as scheduled; false if one already is
+     */
+    boolean scheduleRender() {
+        if (renderPending) {
+            return false;
+        }
+        renderPending = true;
+        return true;
+    }
+
+    void renderDone() {
+        renderPending = false;
+    }
+
+    void awaitChatInput(ChatInput input) {
+        chatInput.set(input);
+    }
+
+    /**
+     * Take the pending chat input, leaving none behind. Safe from the chat thread.
+     */
+    ChatInput takeChatInput() {
+        return chatInput.getAndSet(ChatInput.NONE);
+    }
+}
@@ -0,0 +1,139 @@
+package com.saratoga.loadouts.gui;
+
+import com.saratoga.loadouts.data.Loadout;
+import net.kyori.adventure.text.Component;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Rendered loadout buttons, per loadout version. The weapon icon and the
+ * equipment lore are shared by the main menu and the slot selection menu;
+ * each menu's finished button is cached on top of them.
+ *
+ * Entries are keyed by owner and slot number, which a rename keeps (it only
+ * changes the display name). An entry is replaced as soon as the loadout's
+ * version or last change time (save, rename, edits not written yet) differs,
+ * dropped when its slot is shown empty, and all entries of an older catalog
+ * generation are dropped once a newer one is seen. So at most one entry per
+ * slot of each online player and of the global loadouts is kept. Main thread
+ * only.
+ */
+public final class LoadoutIconCache {
+
+    private record Key(UUID owner, String name) {
+    }
+
+    private static final class Entry {
+        final int version;
+        final long updatedAt;
+        final long catalogGeneration;
+        boolean iconResolved;
+        ItemStack icon; // Null if no weapon could be generated
+        final Map<Boolean, List<Component>> lore = new HashMap<>(2); // Keyed by isGlobal
+        final Map<String, ItemStack> rendered = new HashMap<>();
+
+        Entry(Loadout loadout, long catalogGeneration) {
+            this.version = loadout.getVersion();
+            this.updatedAt = loadout.getUpdatedAt();
+            this.catalogGeneration = catalogGeneration;
+        }
+
+        boolean matches(Loadout loadout, long catalogGeneration) {
+            return version == loadout.getVersion() && updatedAt == loadout.getUpdatedAt()
+                    && this.catalogGeneration == catalogGeneration;
+        }
+    }
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private long lastCatalogGeneration;
+    private long hits;
+    private long misses;
+
+    /**
+     * Weapon icon of a loadout (a copy the caller may modify), or null
+     */
+    ItemStack getIcon(Loadout loadout, long catalogGeneration, Function<Loadout, ItemStack> generator) {
+        Entry entry = entry(loadout, catalogGeneration);
+        if (!entry.iconResolved) {
+            entry.icon = generator.apply(loadout);
+            entry.iconResolved = true;
+        }
+        return entry.icon != null ? entry.icon.clone() : null;
+    }
+
+    /**
+     * Equipment lore of a loadout (a copy the caller may modify)
+     */
+    List<Component> getLore(Loadout loadout, boolean isGlobal, long catalogGeneration,
+            Function<Loadout, List<Component>> builder) {
+        Entry entry = entry(loadout, catalogGeneration);
+        List<Component> lore = entry.lore.computeIfAbsent(isGlobal, k -> List.copyOf(builder.apply(loadout)));
+        return new ArrayList<>(lore);
+    }
+
+    /**
+     * Finished button of a loadout for one menu style. The returned item is
+     * shared and must only be put into inventories, never modified.
+     */
+    ItemStack getRendered(Loadout loadout, long catalogGeneration, String style,
+            Function<Loadout, ItemStack> renderer) {
+        Entry entry = entry(loadout, catalogGeneration);
+        ItemStack rendered = entry.rendered.get(style);
+        if (rendered != null) {
+            hits++;
+            return rendered;
+        }
+        misses++;
+        rendered = renderer.apply(loadout);
+        entry.rendered.put(style, rendered);
+        return rendered;
+    }
+
+    // Current entry of a loadout, replacing an outdated one
+    private Entry entry(Loadout loadout, long catalogGeneration) {
+        if (catalogGeneration != lastCatalogGeneration) {
+            // Rescan: nothing rendered from the old catalog is used again
+            entries.values().removeIf(entry -> entry.catalogGeneration != catalogGeneration);
+            lastCatalogGeneration = catalogGeneration;
+        }
+        Key key = new Key(loadout.getPlayerUUID(), loadout.getName());
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.matches(loadout, catalogGeneration)) {
+            entry = new Entry(loadout, catalogGeneration);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Drop the entry of a slot that no longer holds a loadout (deleted)
+     */
+    void invalidate(UUID owner, String name) {
+        entries.remove(new Key(owner, name));
+    }
+
+    /**
+     * Drop the entries of one owner (player quit)
+     */
+    void invalidateOwner(UUID owner) {
+        entries.keySet().removeIf(key -> key.owner().equals(owner));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,30 @@
+package com.saratoga.loadouts.gui;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Static frame of a menu (fillers, fixed buttons), built once per config
+ * load. Opening a menu copies the frame and fills in only the dynamic slots.
+ *
+ * The items are shared between copies and must never be modified; inventories
+ * store their own copy of every item set into them.
+ */
+final class MenuTemplate {
+
+    private final ItemStack[] contents;
+
+    MenuTemplate(ItemStack[] contents) {
+        this.contents = contents.clone();
+    }
+
+    int size() {
+        return contents.length;
+    }
+
+    /**
+     * A fresh contents array to fill and pass to Inventory.setContents
+     */
+    ItemStack[] copyContents() {
+        return contents.clone();
+    }
+}
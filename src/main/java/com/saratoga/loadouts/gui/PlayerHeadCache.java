@@ -0,0 +1,108 @@
+package com.saratoga.loadouts.gui;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Player head items with the player's skin, built once per session. If the
+ * profile has no textures yet they are resolved off the main thread; until
+ * then a plain head is shown. Main thread only (the lookup reports back
+ * through the scheduler).
+ */
+final class PlayerHeadCache {
+
+    private final Plugin plugin;
+    private final Consumer<SkullMeta> decorator;
+    private final Consumer<UUID> onResolved;
+
+    private final Map<UUID, ItemStack> heads = new HashMap<>();
+    private final Set<UUID> resolving = new HashSet<>();
+    private ItemStack fallback;
+
+    /**
+     * @param decorator  applied to every head (display name, lore)
+     * @param onResolved called when a player's skin became available after
+     *                   the fallback was handed out
+     */
+    PlayerHeadCache(Plugin plugin, Consumer<SkullMeta> decorator, Consumer<UUID> onResolved) {
+        this.plugin = plugin;
+        this.decorator = decorator;
+        this.onResolved = onResolved;
+    }
+
+    /**
+     * The head of a player. Shared item, only put it into inventories.
+     */
+    ItemStack get(Player player) {
+        UUID uuid = player.getUniqueId();
+        ItemStack head = heads.get(uuid);
+        if (head != null) {
+            return head;
+        }
+
+        PlayerProfile profile = player.getPlayerProfile();
+        if (profile.hasTextures()) {
+            // Usual case for online players: the login already brought the skin
+            head = createHead(profile);
+            heads.put(uuid, head);
+            return head;
+        }
+
+        if (resolving.add(uuid)) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                boolean completed = profile.complete(true);
+                try {
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        // Dropped if the player left meanwhile. A failed lookup keeps
+                        // the fallback for the rest of the session instead of retrying.
+                        if (resolving.remove(uuid)) {
+                            heads.put(uuid, completed ? createHead(profile) : getFallback());
+                            if (completed) {
+                                onResolved.accept(uuid);
+                            }
+                        }
+                    });
+                } catch (IllegalStateException e) {
+                    // Plugin is being disabled
+                }
+            });
+        }
+        return getFallback();
+    }
+
+    void invalidate(UUID uuid) {
+        heads.remove(uuid);
+        resolving.remove(uuid);
+    }
+
+    private ItemStack getFallback() {
+        if (fallback == null) {
+            fallback = new ItemStack(Material.PLAYER_HEAD);
+            SkullMeta meta = (SkullMeta) fallback.getItemMeta();
+            decorator.accept(meta);
+            fallback.setItemMeta(meta);
+        }
+        return fallback;
+    }
+
+    private ItemStack createHead(PlayerProfile profile) {
+        ItemStack head = new ItemStack(Material.PLAYER_HEAD);
+        SkullMeta meta = (SkullMeta) head.getItemMeta();
+        meta.setPlayerProfile(profile);
+        decorator.accept(meta);
+        head.setItemMeta(meta);
+        return head;
+    }
+}
@@ -0,0 +1,101 @@
+package com.saratoga.loadouts.integration;
+
+import java.util.*;
+
+/**
+ * Which attachments fit which weapon, as one bitset per weapon over the
+ * attachments sorted by ID. Built with the catalog, so the attachment menu
+ * filters a slot's attachments with a few bitwise operations and gets them
+ * already sorted.
+ *
+ * An attachment without a weapon list fits every weapon; a weapon that no
+ * list mentions only gets those.
+ */
+public final class AttachmentCompatibility {
+
+    static final AttachmentCompatibility EMPTY = build(List.of(), Map.of(), Map.of());
+
+    // Bit index -> attachment ID, sorted
+    private final String[] attachments;
+    // Category -> attachments in it
+    private final Map<String, BitSet> categoryMasks;
+    // Attachments without a weapon list
+    private final BitSet universal;
+    // Weapon -> attachments that fit it (universal ones included)
+    private final Map<String, BitSet> weaponMasks;
+
+    private AttachmentCompatibility(String[] attachments, Map<String, BitSet> categoryMasks, BitSet universal,
+            Map<String, BitSet> weaponMasks) {
+        this.attachments = attachments;
+        this.categoryMasks = categoryMasks;
+        this.universal = universal;
+        this.weaponMasks = weaponMasks;
+    }
+
+    /**
+     * @param categorizedAttachments category -> attachment IDs
+     * @param attachmentWeapons      attachment ID -> weapons it fits, for
+     *                               attachments restricted to some weapons
+     */
+    static AttachmentCompatibility build(List<String> allAttachments,
+            Map<String, List<String>> categorizedAttachments, Map<String, List<String>> attachmentWeapons) {
+        String[] sorted = new TreeSet<>(allAttachments).toArray(new String[0]);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < sorted.length; i++) {
+            indexes.put(sorted[i], i);
+        }
+
+        Map<String, BitSet> categoryMasks = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : categorizedAttachments.entrySet()) {
+            BitSet mask = new BitSet(sorted.length);
+            for (String attachmentId : entry.getValue()) {
+                Integer index = indexes.get(attachmentId);
+                if (index != null) {
+                    mask.set(index);
+                }
+            }
+            categoryMasks.put(entry.getKey(), mask);
+        }
+
+        BitSet universal = new BitSet(sorted.length);
+        Map<String, BitSet> weaponMasks = new HashMap<>();
+        for (int i = 0; i < sorted.length; i++) {
+            List<String> weapons = attachmentWeapons.get(sorted[i]);
+            if (weapons == null || weapons.isEmpty()) {
+                universal.set(i);
+                continue;
+            }
+            for (String weapon : weapons) {
+                weaponMasks.computeIfAbsent(weapon, k -> new BitSet(sorted.length)).set(i);
+            }
+        }
+        for (BitSet mask : weaponMasks.values()) {
+            mask.or(universal);
+        }
+
+        return new AttachmentCompatibility(sorted, categoryMasks, universal, weaponMasks);
+    }
+
+    /**
+     * Attachments in any of the given categories (matched in lower case) that
+     * fit the weapon, sorted by ID. A null weapon means no weapon filter.
+     */
+    public List<String> filter(List<String> categories, String weaponTitle) {
+        BitSet matches = new BitSet(attachments.length);
+        for (String category : categories) {
+            BitSet mask = categoryMasks.get(category.toLowerCase());
+            if (mask != null) {
+                matches.or(mask);
+            }
+        }
+        if (weaponTitle != null) {
+            matches.and(weaponMasks.getOrDefault(weaponTitle, universal));
+        }
+
+        List<String> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(attachments[i]);
+        }
+        return result;
+    }
+}
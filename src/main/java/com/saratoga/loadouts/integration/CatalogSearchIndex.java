@@ -0,0 +1,220 @@
+package com.saratoga.loadouts.integration;
+
+import com.saratoga.loadouts.integration.WeaponCatalog.AttachmentItemData;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search over weapon and attachment IDs and display names, built
+ * together with the catalog. Short queries are answered by prefix from a
+ * sorted word array, longer ones through a trigram index; candidates are
+ * confirmed with a plain substring check.
+ */
+public final class CatalogSearchIndex {
+
+    public enum Kind {
+        WEAPON, ATTACHMENT
+    }
+
+    public record Entry(Kind kind, String id, String displayName) {
+    }
+
+    private static final int GRAM = 3;
+    private static final Pattern COLOR_CODES = Pattern.compile("[&§][0-9a-fk-orx]", Pattern.CASE_INSENSITIVE);
+    // MiniMessage tags such as <gold> or </bold>
+    private static final Pattern TAGS = Pattern.compile("<[^<>]*>");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[\\s_\\-.]+");
+
+    static final CatalogSearchIndex EMPTY = build(List.of(), Map.of(), List.of(), Map.of());
+
+    private final Entry[] entries;
+    // Normalized "id displayName" of each entry, what substring matches run against
+    private final String[] searchTexts;
+    private final String[] normalizedIds;
+
+    // Sorted distinct words, and for each word the entries containing it
+    private final String[] words;
+    private final int[][] wordEntries;
+
+    // Trigram -> entries containing it, ascending
+    private final Map<String, int[]> trigrams;
+
+    private CatalogSearchIndex(List<Entry> entryList) {
+        this.entries = entryList.toArray(new Entry[0]);
+        this.searchTexts = new String[entries.length];
+        this.normalizedIds = new String[entries.length];
+
+        TreeMap<String, List<Integer>> wordMap = new TreeMap<>();
+        Map<String, List<Integer>> gramMap = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            Entry entry = entries[i];
+            String id = normalize(entry.id());
+            String name = entry.displayName() != null ? normalize(entry.displayName()) : "";
+            normalizedIds[i] = id;
+            searchTexts[i] = name.isEmpty() || name.equals(id) ? id : id + " " + name;
+
+            Set<String> entryWords = new HashSet<>();
+            entryWords.add(id);
+            entryWords.addAll(Arrays.asList(WORD_SEPARATORS.split(id)));
+            if (!name.isEmpty()) {
+                entryWords.add(name);
+                entryWords.addAll(Arrays.asList(WORD_SEPARATORS.split(name)));
+            }
+            for (String word : entryWords) {
+                if (!word.isEmpty()) {
+                    wordMap.computeIfAbsent(word, k -> new ArrayList<>()).add(i);
+                }
+            }
+
+            Set<String> entryGrams = new HashSet<>();
+            String text = searchTexts[i];
+            for (int j = 0; j + GRAM <= text.length(); j++) {
+                entryGrams.add(text.substring(j, j + GRAM));
+            }
+            for (String gram : entryGrams) {
+                gramMap.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.words = wordMap.keySet().toArray(new String[0]);
+        this.wordEntries = new int[words.length][];
+        int w = 0;
+        for (List<Integer> list : wordMap.values()) {
+            wordEntries[w++] = toArray(list);
+        }
+
+        Map<String, int[]> grams = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : gramMap.entrySet()) {
+            grams.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        this.trigrams = grams;
+    }
+
+    /**
+     * Index the given weapons and attachments with their display names (weapon
+     * item names and attachment item data, both from the scanned files)
+     */
+    static CatalogSearchIndex build(List<String> weapons, Map<String, String> weaponDisplayNames,
+            List<String> attachments, Map<String, AttachmentItemData> attachmentItemData) {
+        List<Entry> entries = new ArrayList<>(weapons.size() + attachments.size());
+        for (String weapon : weapons) {
+            entries.add(new Entry(Kind.WEAPON, weapon, weaponDisplayNames.get(weapon)));
+        }
+        for (String attachment : attachments) {
+            AttachmentItemData itemData = attachmentItemData.get(attachment);
+            entries.add(new Entry(Kind.ATTACHMENT, attachment, itemData != null ? itemData.displayName() : null));
+        }
+        return new CatalogSearchIndex(entries);
+    }
+
+    /**
+     * Search entries of one kind. Exact ID matches come first, then entries
+     * with a word starting with the query, then (for queries of three or more
+     * characters) entries containing it anywhere; each group in catalog order.
+     */
+    public List<Entry> search(String query, Kind kind, int limit) {
+        String q = normalize(query).trim();
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        BitSet prefixMatches = prefixMatches(q);
+        BitSet substringMatches = q.length() >= GRAM ? substringMatches(q) : new BitSet();
+
+        List<Entry> result = new ArrayList<>();
+        // Exact ID
+        for (int i = prefixMatches.nextSetBit(0); i >= 0; i = prefixMatches.nextSetBit(i + 1)) {
+            if (entries[i].kind() == kind && normalizedIds[i].equals(q) && !add(result, i, limit)) {
+                return result;
+            }
+        }
+        // Word prefix
+        for (int i = prefixMatches.nextSetBit(0); i >= 0; i = prefixMatches.nextSetBit(i + 1)) {
+            if (entries[i].kind() == kind && !normalizedIds[i].equals(q) && !add(result, i, limit)) {
+                return result;
+            }
+        }
+        // Anywhere
+        substringMatches.andNot(prefixMatches);
+        for (int i = substringMatches.nextSetBit(0); i >= 0; i = substringMatches.nextSetBit(i + 1)) {
+            if (entries[i].kind() == kind && !add(result, i, limit)) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * IDs of one kind starting with the given prefix, for tab completion
+     */
+    public List<String> completeIds(String prefix, Kind kind, int limit) {
+        String p = normalize(prefix);
+        List<String> result = new ArrayList<>();
+        for (int w = lowerBound(p); w < words.length && words[w].startsWith(p); w++) {
+            for (int i : wordEntries[w]) {
+                if (entries[i].kind() == kind && normalizedIds[i].equals(words[w])) {
+                    result.add(entries[i].id());
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean add(List<Entry> result, int index, int limit) {
+        result.add(entries[index]);
+        return result.size() < limit;
+    }
+
+    private BitSet prefixMatches(String q) {
+        BitSet matches = new BitSet(entries.length);
+        for (int w = lowerBound(q); w < words.length && words[w].startsWith(q); w++) {
+            for (int i : wordEntries[w]) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    private BitSet substringMatches(String q) {
+        // Candidates must contain every trigram of the query; start from the rarest
+        int[] candidates = null;
+        for (int j = 0; j + GRAM <= q.length(); j++) {
+            int[] postings = trigrams.get(q.substring(j, j + GRAM));
+            if (postings == null) {
+                return new BitSet();
+            }
+            candidates = candidates == null || postings.length < candidates.length ? postings : candidates;
+        }
+
+        BitSet matches = new BitSet(entries.length);
+        for (int i : candidates) {
+            if (searchTexts[i].contains(q)) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    // First word >= key
+    private int lowerBound(String key) {
+        int index = Arrays.binarySearch(words, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static String normalize(String text) {
+        String plain = TAGS.matcher(text).replaceAll("");
+        return COLOR_CODES.matcher(plain).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
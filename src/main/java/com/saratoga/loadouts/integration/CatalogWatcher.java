@@ -0,0 +1,176 @@
+package com.saratoga.loadouts.integration;
+
+import com.saratoga.loadouts.Loadouts;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches the WeaponMechanics weapons and attachments folders and triggers a
+ * rescan once a burst of file changes has settled. The rescan itself is the
+ * normal incremental, off-thread scan. It still lists only the weapons
+ * WeaponMechanics has registered, so a weapon in a new file appears only on
+ * a rescan after WeaponMechanics was reloaded; edits to known weapons apply
+ * directly.
+ */
+public class CatalogWatcher {
+
+    private final Loadouts plugin;
+    private final WeaponMechanicsIntegration wmIntegration;
+    private final long debounceMillis;
+
+    private final Path weaponsRoot;
+    private final Path attachmentsRoot;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    // Watched directory -> root it belongs to
+    private final Map<WatchKey, Path> watchedRoots = new HashMap<>();
+
+    public CatalogWatcher(Loadouts plugin) {
+        this.plugin = plugin;
+        this.wmIntegration = plugin.getWmIntegration();
+        this.debounceMillis = plugin.getLoadoutsConfig().getCatalogWatchDebounceMillis();
+
+        File wmDataFolder = WeaponMechanics.getInstance().getDataFolder();
+        this.weaponsRoot = new File(wmDataFolder, "weapons").toPath();
+        this.attachmentsRoot = new File(wmDataFolder, "attachments").toPath();
+    }
+
+    /**
+     * Register the folders and start the watcher thread
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            registerTree(watchService, weaponsRoot, weaponsRoot);
+            registerTree(watchService, attachmentsRoot, attachmentsRoot);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to watch WeaponMechanics folders, use /loadout syncwm instead",
+                    e);
+            stop();
+            return;
+        }
+
+        thread = new Thread(this::run, "Loadouts-CatalogWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        plugin.getLogger().info("Watching WeaponMechanics weapons/attachments for changes");
+    }
+
+    /**
+     * Stop watching
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close(); // Wakes the thread up with ClosedWatchServiceException
+            } catch (IOException e) {
+                // Ignore
+            }
+            watchService = null;
+        }
+        thread = null;
+    }
+
+    private void run() {
+        WatchService service = watchService;
+        boolean weaponsDirty = false;
+        boolean attachmentsDirty = false;
+
+        try {
+            while (true) {
+                // Block until something happens; while a burst is pending, wait
+                // at most the debounce time for the next event
+                WatchKey key = (weaponsDirty || attachmentsDirty)
+                        ? service.poll(debounceMillis, TimeUnit.MILLISECONDS)
+                        : service.take();
+
+                if (key == null) {
+                    // Quiet for the whole debounce window - rescan what changed
+                    triggerRescan(weaponsDirty, attachmentsDirty);
+                    weaponsDirty = false;
+                    attachmentsDirty = false;
+                    continue;
+                }
+
+                Path root = watchedRoots.get(key);
+                if (root == null) {
+                    key.cancel();
+                    continue;
+                }
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    boolean relevant = event.kind() == StandardWatchEventKinds.OVERFLOW;
+                    if (!relevant) {
+                        Path changed = dir.resolve((Path) event.context());
+                        String name = changed.getFileName().toString();
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                            registerTree(service, changed, root); // New category folder
+                            relevant = true;
+                        } else {
+                            relevant = name.endsWith(".yml") || Files.isDirectory(changed)
+                                    || event.kind() == StandardWatchEventKinds.ENTRY_DELETE;
+                        }
+                    }
+
+                    if (relevant) {
+                        if (weaponsRoot.equals(root)) {
+                            weaponsDirty = true;
+                        } else {
+                            attachmentsDirty = true;
+                        }
+                    }
+                }
+
+                if (!key.reset()) {
+                    watchedRoots.remove(key); // Directory was deleted
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "WeaponMechanics folder watcher stopped", e);
+        }
+    }
+
+    private void triggerRescan(boolean weapons, boolean attachments) {
+        try {
+            // Scans read the WM API first, which has to happen on the main thread
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (weapons) {
+                    plugin.getLogger().info("WeaponMechanics weapons changed, rescanning...");
+                }
+                if (attachments) {
+                    plugin.getLogger().info("WeaponMechanics attachments changed, rescanning...");
+                }
+                wmIntegration.scan(weapons, attachments);
+            });
+        } catch (IllegalStateException e) {
+            // Plugin is being disabled
+        }
+    }
+
+    private void registerTree(WatchService service, Path start, Path root) throws IOException {
+        if (!Files.isDirectory(start)) {
+            return;
+        }
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watchedRoots.put(key, root);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.saratoga.loadouts.integration;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Generated ItemStacks, one template per key (weapon title, attachment ID,
+ * ammo title, ...). Callers always get a clone, so the templates are never
+ * modified. Keys that could not be generated are remembered as well, so a
+ * missing item is looked up (and reported by the generator) once. Cleared
+ * whenever a new catalog is published.
+ */
+public class ItemTemplateCache {
+
+    // Empty for keys whose generation failed
+    private final Map<String, Optional<ItemStack>> templates = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Get a copy of the template for a key, generating it on first use. Null
+     * if the generator returned null, now or earlier since the last
+     * {@link #invalidate()}.
+     */
+    public ItemStack get(String key, Function<String, ItemStack> generator) {
+        Optional<ItemStack> template = templates.get(key);
+        if (template != null) {
+            hits.increment();
+            return template.map(ItemStack::clone).orElse(null);
+        }
+
+        misses.increment();
+        ItemStack generated = generator.apply(key);
+        templates.put(key, Optional.ofNullable(generated).map(ItemStack::clone));
+        return generated;
+    }
+
+    /**
+     * Drop all templates and failures (WeaponMechanics configs may have changed)
+     */
+    public void invalidate() {
+        templates.clear();
+    }
+
+    /**
+     * Number of cached keys, failed ones included
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,169 @@
+package com.saratoga.loadouts.integration;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On-disk record of the YAML files scanned last time: path, size, mtime and
+ * content hash, plus whatever was extracted from the file. Lets a rescan skip
+ * files that did not change.
+ *
+ * The extracted data is an opaque payload encoded by the caller.
+ */
+public class ScanManifest {
+
+    // Bump when a payload format changes (2: attachment weapon lists, 3: weapon display names)
+    private static final int FORMAT_VERSION = 3;
+
+    private record Entry(long size, long lastModified, byte[] hash, byte[] payload) {
+    }
+
+    private final File file;
+    private final Logger logger;
+
+    // Absolute file path -> entry
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ScanManifest(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Load the manifest from disk. A missing or unreadable manifest just means
+     * every file is parsed again.
+     */
+    public void load() {
+        entries.clear();
+        if (!file.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                logger.info("Scan manifest has an old format, rescanning everything");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                byte[] hash = new byte[in.readInt()];
+                in.readFully(hash);
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                entries.put(path, new Entry(size, lastModified, hash, payload));
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read scan manifest, rescanning everything", e);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Write the manifest to disk (via a temp file so a crash never leaves a
+     * half-written manifest)
+     */
+    public void save() {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            Map<String, Entry> snapshot = Map.copyOf(entries);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey());
+                out.writeLong(entry.size());
+                out.writeLong(entry.lastModified());
+                out.writeInt(entry.hash().length);
+                out.write(entry.hash());
+                out.writeInt(entry.payload().length);
+                out.write(entry.payload());
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write scan manifest", e);
+            return;
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to replace scan manifest", e);
+        }
+    }
+
+    /**
+     * Get the stored payload if the file did not change since it was recorded,
+     * otherwise null. Size and mtime are checked first; if they differ the
+     * content hash decides (e.g. a file that was only touched).
+     */
+    public byte[] getIfUnchanged(File source) {
+        Entry entry = entries.get(source.getAbsolutePath());
+        if (entry == null) {
+            return null;
+        }
+
+        long size = source.length();
+        long lastModified = source.lastModified();
+        if (entry.size() == size && entry.lastModified() == lastModified) {
+            return entry.payload();
+        }
+
+        byte[] hash = hashFile(source);
+        if (hash == null || !Arrays.equals(hash, entry.hash())) {
+            return null;
+        }
+
+        // Same content, remember the new size/mtime so the hash is skipped next time
+        entries.put(source.getAbsolutePath(), new Entry(size, lastModified, hash, entry.payload()));
+        return entry.payload();
+    }
+
+    /**
+     * Record what was extracted from a freshly parsed file. Size and mtime
+     * must be taken before the content was read, so an edit made while
+     * parsing shows up as a change on the next scan.
+     */
+    public void put(File source, long size, long lastModified, byte[] content, byte[] payload) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            entries.put(source.getAbsolutePath(), new Entry(size, lastModified, hash, payload));
+        } catch (NoSuchAlgorithmException e) {
+            logger.log(Level.FINE, "Failed to hash " + source.getPath(), e);
+        }
+    }
+
+    /**
+     * Drop entries under the given folder whose file was not part of the
+     * latest scan (deleted or renamed files)
+     */
+    public void retainScanned(File folder, Set<String> scannedPaths) {
+        String prefix = folder.getAbsolutePath() + File.separator;
+        entries.keySet().removeIf(path -> path.startsWith(prefix) && !scannedPaths.contains(path));
+    }
+
+    private byte[] hashFile(File source) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(source.toPath()));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.log(Level.FINE, "Failed to hash " + source.getPath(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.saratoga.loadouts.integration;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the weapons and attachments found in WeaponMechanics.
+ * A rescan builds a new catalog and swaps it in as a whole, so readers always
+ * see either the old or the new catalog, never a half-built one. Everything
+ * derived from the scan results (slot lists, attachment compatibility, search
+ * index) is computed while building, off the main thread.
+ */
+public final class WeaponCatalog {
+
+    // Item data of an attachment, used for icon generation
+    public record AttachmentItemData(String material, int customModelData, String displayName) {
+    }
+
+    /**
+     * Weapons allowed in one loadout slot as a flat array, in slot category
+     * order, with the offset where each category starts
+     */
+    public static final class SlotWeapons {
+
+        private static final SlotWeapons EMPTY = new SlotWeapons(new String[0], new String[0], new int[] { 0 });
+
+        private final String[] weapons;
+        private final String[] categories;
+        // offsets[i] is the index of the first weapon of categories[i], the last entry is the total
+        private final int[] offsets;
+
+        private SlotWeapons(String[] weapons, String[] categories, int[] offsets) {
+            this.weapons = weapons;
+            this.categories = categories;
+            this.offsets = offsets;
+        }
+
+        private static SlotWeapons build(List<String> allowedCategories,
+                Map<String, List<String>> categorizedWeapons) {
+            List<String> weapons = new ArrayList<>();
+            List<String> categories = new ArrayList<>();
+            List<Integer> offsets = new ArrayList<>();
+            for (String category : allowedCategories) {
+                List<String> inCategory = categorizedWeapons.get(category);
+                if (inCategory == null || inCategory.isEmpty() || categories.contains(category)) {
+                    continue;
+                }
+                categories.add(category);
+                offsets.add(weapons.size());
+                weapons.addAll(inCategory);
+            }
+            offsets.add(weapons.size());
+            return new SlotWeapons(weapons.toArray(new String[0]), categories.toArray(new String[0]),
+                    offsets.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        public int size() {
+            return weapons.length;
+        }
+
+        public String get(int index) {
+            return weapons[index];
+        }
+
+        /**
+         * Weapons from index start (inclusive) to end (exclusive), clamped to the list
+         */
+        public List<String> slice(int start, int end) {
+            int from = Math.max(0, Math.min(start, weapons.length));
+            int to = Math.max(from, Math.min(end, weapons.length));
+            return Collections.unmodifiableList(Arrays.asList(weapons).subList(from, to));
+        }
+
+        public List<String> asList() {
+            return slice(0, weapons.length);
+        }
+
+        /**
+         * Category -> weapons, as views into the flat array
+         */
+        public Map<String, List<String>> byCategory() {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            for (int i = 0; i < categories.length; i++) {
+                result.put(categories[i], slice(offsets[i], offsets[i + 1]));
+            }
+            return result;
+        }
+    }
+
+    private static final WeaponCatalog EMPTY = new Builder().build();
+
+    // Bumped on every swap, lets caches tell whether they were built from this catalog
+    private final long generation;
+
+    // Category -> weapon titles (category order as scanned, titles sorted)
+    private final Map<String, List<String>> categorizedWeapons;
+    // Weapon title -> category
+    private final Map<String, String> weaponCategories;
+    // Weapon title -> ammo types (from YAML parsing)
+    private final Map<String, List<String>> weaponAmmoTypes;
+    // Weapon title -> item display name (from YAML parsing), if the weapon has one
+    private final Map<String, String> weaponDisplayNames;
+    // All weapon titles, in WeaponMechanics order
+    private final List<String> allWeapons;
+    // Slot type -> weapons allowed in that slot
+    private final Map<String, SlotWeapons> slotWeapons;
+    // Weapon title -> magazine/ammo/consumable amounts
+    private final Map<String, WeaponGrant> grants;
+
+    // Attachment category -> attachment IDs (sorted)
+    private final Map<String, List<String>> categorizedAttachments;
+    // Attachment ID -> category
+    private final Map<String, String> attachmentCategories;
+    // Attachment ID -> item data
+    private final Map<String, AttachmentItemData> attachmentItemData;
+    // All attachment IDs, in scan order
+    private final List<String> allAttachments;
+    // Attachment -> weapon fit
+    private final AttachmentCompatibility attachmentCompatibility;
+
+    // Search over everything above
+    private final CatalogSearchIndex searchIndex;
+
+    private WeaponCatalog(Builder builder) {
+        this.generation = builder.generation;
+        this.categorizedWeapons = builder.categorizedWeapons;
+        this.weaponCategories = builder.weaponCategories;
+        this.weaponAmmoTypes = builder.weaponAmmoTypes;
+        this.weaponDisplayNames = builder.weaponDisplayNames;
+        this.allWeapons = builder.allWeapons;
+        this.slotWeapons = builder.slotWeapons;
+        this.grants = builder.grants;
+        this.categorizedAttachments = builder.categorizedAttachments;
+        this.attachmentCategories = builder.attachmentCategories;
+        this.attachmentItemData = builder.attachmentItemData;
+        this.allAttachments = builder.allAttachments;
+        this.attachmentCompatibility = builder.attachmentCompatibility;
+        this.searchIndex = allWeapons.isEmpty() && allAttachments.isEmpty() ? CatalogSearchIndex.EMPTY
+                : CatalogSearchIndex.build(allWeapons, weaponDisplayNames, allAttachments, attachmentItemData);
+    }
+
+    /**
+     * Catalog used before the first scan finished
+     */
+    public static WeaponCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Start the next catalog from this one. Parts a scan does not replace are
+     * kept as they are.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Collects the results of one scan. Meant for the scanner thread: slot
+     * lists and attachment compatibility are built as the parts are set, the
+     * search index in {@link #build()}, so swapping in the result is free.
+     */
+    public static final class Builder {
+
+        private final long generation;
+        private Map<String, List<String>> categorizedWeapons;
+        private Map<String, String> weaponCategories;
+        private Map<String, List<String>> weaponAmmoTypes;
+        private Map<String, String> weaponDisplayNames;
+        private List<String> allWeapons;
+        private Map<String, SlotWeapons> slotWeapons;
+        private Map<String, WeaponGrant> grants;
+        private Map<String, List<String>> categorizedAttachments;
+        private Map<String, String> attachmentCategories;
+        private Map<String, AttachmentItemData> attachmentItemData;
+        private List<String> allAttachments;
+        private AttachmentCompatibility attachmentCompatibility;
+
+        // Empty catalog
+        private Builder() {
+            this.generation = 0;
+            this.categorizedWeapons = Map.of();
+            this.weaponCategories = Map.of();
+            this.weaponAmmoTypes = Map.of();
+            this.weaponDisplayNames = Map.of();
+            this.allWeapons = List.of();
+            this.slotWeapons = Map.of();
+            this.grants = Map.of();
+            this.categorizedAttachments = Map.of();
+            this.attachmentCategories = Map.of();
+            this.attachmentItemData = Map.of();
+            this.allAttachments = List.of();
+            this.attachmentCompatibility = AttachmentCompatibility.EMPTY;
+        }
+
+        private Builder(WeaponCatalog base) {
+            this.generation = base.generation + 1;
+            this.categorizedWeapons = base.categorizedWeapons;
+            this.weaponCategories = base.weaponCategories;
+            this.weaponAmmoTypes = base.weaponAmmoTypes;
+            this.weaponDisplayNames = base.weaponDisplayNames;
+            this.allWeapons = base.allWeapons;
+            this.slotWeapons = base.slotWeapons;
+            this.grants = base.grants;
+            this.categorizedAttachments = base.categorizedAttachments;
+            this.attachmentCategories = base.attachmentCategories;
+            this.attachmentItemData = base.attachmentItemData;
+            this.allAttachments = base.allAttachments;
+            this.attachmentCompatibility = base.attachmentCompatibility;
+        }
+
+        /**
+         * Replace the weapon part. The given collections are copied, the
+         * caller may keep using them. slotCategories maps each configured slot
+         * type to its allowed categories.
+         */
+        public Builder weapons(Map<String, List<String>> categorizedWeapons,
+                Map<String, String> weaponCategories, Map<String, List<String>> weaponAmmoTypes,
+                Map<String, String> weaponDisplayNames, List<String> allWeapons,
+                Map<String, List<String>> slotCategories) {
+            Map<String, List<String>> categorized = copyCategorized(categorizedWeapons);
+            Map<String, SlotWeapons> slots = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : slotCategories.entrySet()) {
+                slots.put(entry.getKey(), SlotWeapons.build(entry.getValue(), categorized));
+            }
+            this.categorizedWeapons = categorized;
+            this.weaponCategories = Map.copyOf(weaponCategories);
+            this.weaponAmmoTypes = copyCategorized(weaponAmmoTypes);
+            this.weaponDisplayNames = Map.copyOf(weaponDisplayNames);
+            this.allWeapons = List.copyOf(allWeapons);
+            this.slotWeapons = Map.copyOf(slots);
+            return this;
+        }
+
+        /**
+         * Replace the grant table (weapon title -> grant). The map is copied.
+         */
+        public Builder grants(Map<String, WeaponGrant> grants) {
+            this.grants = Map.copyOf(grants);
+            return this;
+        }
+
+        /**
+         * Replace the attachment part. The given collections are copied, the
+         * caller may keep using them. attachmentWeapons lists the weapons of
+         * attachments restricted to some weapons.
+         */
+        public Builder attachments(Map<String, List<String>> categorizedAttachments,
+                Map<String, String> attachmentCategories, Map<String, AttachmentItemData> attachmentItemData,
+                List<String> allAttachments, Map<String, List<String>> attachmentWeapons) {
+            Map<String, List<String>> categorized = copyCategorized(categorizedAttachments);
+            this.categorizedAttachments = categorized;
+            this.attachmentCategories = Map.copyOf(attachmentCategories);
+            this.attachmentItemData = Map.copyOf(attachmentItemData);
+            this.allAttachments = List.copyOf(allAttachments);
+            this.attachmentCompatibility = AttachmentCompatibility.build(allAttachments, categorized,
+                    attachmentWeapons);
+            return this;
+        }
+
+        public WeaponCatalog build() {
+            return new WeaponCatalog(this);
+        }
+    }
+
+    private static Map<String, List<String>> copyCategorized(Map<String, List<String>> source) {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+            copy.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    // ==================== Accessors ====================
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public Map<String, List<String>> getCategorizedWeapons() {
+        return categorizedWeapons;
+    }
+
+    public List<String> getWeaponsInCategory(String category) {
+        return categorizedWeapons.getOrDefault(category, List.of());
+    }
+
+    public String getWeaponCategory(String weaponTitle) {
+        return weaponCategories.get(weaponTitle);
+    }
+
+    public boolean weaponExists(String weaponTitle) {
+        return weaponCategories.containsKey(weaponTitle);
+    }
+
+    public List<String> getAmmoTypes(String weaponTitle) {
+        return weaponAmmoTypes.getOrDefault(weaponTitle, List.of());
+    }
+
+    /**
+     * Display name of a weapon's item as configured in WeaponMechanics, or null
+     */
+    public String getWeaponDisplayName(String weaponTitle) {
+        return weaponDisplayNames.get(weaponTitle);
+    }
+
+    public List<String> getAllWeapons() {
+        return allWeapons;
+    }
+
+    /**
+     * Weapons allowed in a slot type, empty for unknown slot types
+     */
+    public SlotWeapons getSlotWeapons(String slotType) {
+        return slotWeapons.getOrDefault(slotType, SlotWeapons.EMPTY);
+    }
+
+    /**
+     * Grant data of a weapon, or null if it is not in this catalog
+     */
+    public WeaponGrant getGrant(String weaponTitle) {
+        return grants.get(weaponTitle);
+    }
+
+    public Map<String, List<String>> getCategorizedAttachments() {
+        return categorizedAttachments;
+    }
+
+    public String getAttachmentCategory(String attachmentId) {
+        return attachmentCategories.get(attachmentId);
+    }
+
+    public AttachmentItemData getAttachmentItemData(String attachmentId) {
+        return attachmentItemData.get(attachmentId);
+    }
+
+    public List<String> getAllAttachments() {
+        return allAttachments;
+    }
+
+    public AttachmentCompatibility getAttachmentCompatibility() {
+        return attachmentCompatibility;
+    }
+
+    public CatalogSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+}
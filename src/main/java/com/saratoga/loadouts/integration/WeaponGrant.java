@@ -0,0 +1,107 @@
+package com.saratoga.loadouts.integration;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything needed to show and grant one weapon, computed once per scan on
+ * the scanner thread: magazine size, reserve ammo, the primary ammo type, the
+ * consumable amount and how those amounts split into stacks. The items
+ * themselves are generated on the main thread when first given; granting only
+ * clones them into the precomputed stacks.
+ */
+public final class WeaponGrant {
+
+    // Max stack size assumed for ammo items, the vanilla default
+    static final int DEFAULT_MAX_STACK = 64;
+
+    private final int magazineSize;
+    private final int reserveAmmo;
+    private final String primaryAmmo;
+    private final int consumableAmount;
+
+    // Stack amounts of the reserve ammo / consumables, for the max stack size
+    // each was split with
+    private final int ammoMaxStack;
+    private final int[] ammoStacks;
+    private final int consumableMaxStack;
+    private final int[] consumableStacks;
+
+    /**
+     * @param ammoMaxStack       max stack size of the ammo item
+     * @param consumableMaxStack max stack size of the weapon item
+     */
+    WeaponGrant(int magazineSize, int reserveAmmo, String primaryAmmo, int consumableAmount, int ammoMaxStack,
+            int consumableMaxStack) {
+        this.magazineSize = magazineSize;
+        this.reserveAmmo = reserveAmmo;
+        this.primaryAmmo = primaryAmmo;
+        this.consumableAmount = consumableAmount;
+        this.ammoMaxStack = ammoMaxStack;
+        this.ammoStacks = stacks(reserveAmmo, ammoMaxStack);
+        this.consumableMaxStack = consumableMaxStack;
+        this.consumableStacks = stacks(consumableAmount, consumableMaxStack);
+    }
+
+    // The total in stacks of at most maxStack
+    static int[] stacks(int total, int maxStack) {
+        if (total <= 0 || maxStack <= 0) {
+            return new int[0];
+        }
+        int[] stacks = new int[(total + maxStack - 1) / maxStack];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = Math.min(maxStack, total - i * maxStack);
+        }
+        return stacks;
+    }
+
+    // Copies of the template with the given amounts. If the item turned out to
+    // stack differently than assumed at scan time, the total is split again.
+    private static List<ItemStack> fill(ItemStack template, int[] stacks, int maxStack, int total) {
+        if (template.getMaxStackSize() != maxStack) {
+            stacks = stacks(total, template.getMaxStackSize());
+        }
+        List<ItemStack> items = new ArrayList<>(stacks.length);
+        for (int amount : stacks) {
+            ItemStack stack = template.clone();
+            stack.setAmount(amount);
+            items.add(stack);
+        }
+        return items;
+    }
+
+    public int getMagazineSize() {
+        return magazineSize;
+    }
+
+    public int getReserveAmmo() {
+        return reserveAmmo;
+    }
+
+    /**
+     * The ammo type the reserve ammo is given as, or null for consumables
+     */
+    public String getPrimaryAmmo() {
+        return primaryAmmo;
+    }
+
+    public int getConsumableAmount() {
+        return consumableAmount;
+    }
+
+    /**
+     * Reserve ammo as ready-to-give stacks of the given ammo item
+     */
+    public List<ItemStack> createAmmoItems(ItemStack ammo) {
+        return fill(ammo, ammoStacks, ammoMaxStack, reserveAmmo);
+    }
+
+    /**
+     * The consumable amount as stacks of the given weapon item
+     */
+    public List<ItemStack> createConsumableItems(ItemStack weapon) {
+        return fill(weapon, consumableStacks, consumableMaxStack, consumableAmount);
+    }
+}
@@ -2,6 +2,8 @@ package com.saratoga.loadouts.integration;
 
 import com.saratoga.loadouts.Loadouts;
 import com.saratoga.loadouts.LoadoutsConfig;
+import com.saratoga.loadouts.integration.WeaponCatalog.AttachmentItemData;
+import me.deecaad.core.file.Configuration;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.WeaponMechanicsAPI;
 import me.deecaad.weaponmechanics.weapon.info.InfoHandler;
@@ -9,8 +11,14 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 /**
@@ -21,65 +29,170 @@ public class WeaponMechanicsIntegration {
 
     private final Loadouts plugin;
 
-    // Category -> List of weapon titles
-    private final Map<String, List<String>> categorizedWeapons = new LinkedHashMap<>();
-
-    // Weapon title -> Category mapping for quick lookup
-    private final Map<String, String> weaponCategories = new HashMap<>();
-
-    // Weapon title -> Ammo types (from YAML parsing)
-    private final Map<String, List<String>> weaponAmmoTypes = new HashMap<>();
-
-    // All weapon titles
-    private final List<String> allWeapons = new ArrayList<>();
+    // Current catalog, replaced as a whole when a scan finishes
+    private volatile WeaponCatalog catalog = WeaponCatalog.empty();
+    // Last catalog built by the scanner thread (may not be published yet), the
+    // base of the next scan. Scanner thread only.
+    private WeaponCatalog lastBuilt = catalog;
+
+    // Scans run here one at a time, off the main thread
+    private final ExecutorService scanExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Loadouts-Scanner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // A YAML file found by the folder walk, with the category it belongs to
+    private record ScanFile(File file, String category) {
+    }
 
-    // Attachment category -> List of attachment IDs
-    private final Map<String, List<String>> categorizedAttachments = new LinkedHashMap<>();
+    // What one weapon file defines: weapon IDs in file order, their ammo types and
+    // the display names of their items
+    private record WeaponFileData(List<String> weaponIds, Map<String, List<String>> ammoTypes,
+            Map<String, String> displayNames) {
+    }
 
-    // Attachment ID -> Category mapping
-    private final Map<String, String> attachmentCategories = new HashMap<>();
+    // What one attachment file defines: attachment IDs in file order, their item data
+    // and, for attachments restricted to some weapons, those weapons
+    private record AttachmentFileData(List<String> attachmentIds, Map<String, AttachmentItemData> itemData,
+            Map<String, List<String>> weapons) {
+    }
 
-    // Attachment ID -> Item data (Material, CustomModelData, Name)
-    private final Map<String, AttachmentItemData> attachmentItemData = new HashMap<>();
+    // Streaming extractors for the few paths the scan needs
+    private static final String AMMOS_PATH = "Reload.Ammo.Ammos";
+    private static final String AMMO_PATH = "Reload.Ammo.Ammo";
+    private static final String WEAPON_NAME_PATH = "Info.Weapon_Item.Name";
+    private static final String ITEM_TYPE_PATH = "Item.Type";
+    private static final String ITEM_MODEL_DATA_PATH = "Item.Custom_Model_Data";
+    private static final String ITEM_NAME_PATH = "Item.Name";
+    private static final String WEAPONS_PATH = "Weapons";
+    private static final YamlKeyExtractor WEAPON_EXTRACTOR = new YamlKeyExtractor(
+            Set.of(AMMOS_PATH, AMMO_PATH, WEAPON_NAME_PATH));
+    private static final YamlKeyExtractor ATTACHMENT_EXTRACTOR = new YamlKeyExtractor(
+            Set.of(ITEM_TYPE_PATH, ITEM_MODEL_DATA_PATH, ITEM_NAME_PATH, WEAPONS_PATH));
+
+    // Files seen by earlier scans, so rescans only parse new or changed files
+    private final ScanManifest manifest;
+
+    // Generated weapon items, reused for icons and grants until the next rescan
+    private final ItemTemplateCache weaponTemplates = new ItemTemplateCache();
+    private final ItemTemplateCache attachmentTemplates = new ItemTemplateCache();
+    private final ItemTemplateCache ammoTemplates = new ItemTemplateCache();
+
+    // WeaponMechanicsPlus attachment access, indexed on every attachment scan
+    private final WmpAttachmentBridge wmpBridge;
 
-    // All attachment IDs
-    private final List<String> allAttachments = new ArrayList<>();
+    public WeaponMechanicsIntegration(Loadouts plugin) {
+        this.plugin = plugin;
+        this.manifest = new ScanManifest(new File(plugin.getDataFolder(), "scan-manifest.dat"), plugin.getLogger());
+        this.wmpBridge = new WmpAttachmentBridge(plugin.getLogger());
+        manifest.load();
+    }
 
-    // Data class for attachment item info
-    private record AttachmentItemData(String material, int customModelData, String displayName) {
+    /**
+     * Get the current weapon/attachment catalog. The returned snapshot never
+     * changes, a rescan publishes a new one.
+     */
+    public WeaponCatalog getCatalog() {
+        return catalog;
     }
 
-    public WeaponMechanicsIntegration(Loadouts plugin) {
-        this.plugin = plugin;
+    /**
+     * Rescan the weapons, see {@link #scan(boolean, boolean)}
+     */
+    public CompletableFuture<WeaponCatalog> scanWeapons() {
+        return scan(true, false);
     }
 
     /**
-     * Load weapons from WeaponMechanics using YAML parsing for correct ID
-     * detection.
+     * Rescan the attachments, see {@link #scan(boolean, boolean)}
      */
-    public void scanWeapons() {
-        categorizedWeapons.clear();
-        weaponCategories.clear();
-        weaponAmmoTypes.clear();
-        allWeapons.clear();
+    public CompletableFuture<WeaponCatalog> scanAttachments() {
+        return scan(false, true);
+    }
 
+    /**
+     * Rescan weapons and/or attachments and publish the result as one new
+     * catalog. Must be called on the main thread: the WM API is read here, the
+     * files are parsed and the complete catalog is built on the scanner
+     * thread, and the main thread only swaps it in. The future completes with
+     * the published catalog.
+     */
+    public CompletableFuture<WeaponCatalog> scan(boolean weapons, boolean attachments) {
+        List<String> registeredWeapons = List.of();
+        File wmDataFolder;
         try {
-            // Get registered weapon list from WM API
-            InfoHandler infoHandler = WeaponMechanics.getInstance().getWeaponHandler().getInfoHandler();
-            List<String> registeredWeapons = infoHandler.getSortedWeaponList();
-
-            plugin.getLogger()
-                    .info("Found " + registeredWeapons.size() + " registered weapons from WeaponMechanics API");
+            wmDataFolder = WeaponMechanics.getInstance().getDataFolder();
+            if (weapons) {
+                // Get registered weapon list from WM API
+                InfoHandler infoHandler = WeaponMechanics.getInstance().getWeaponHandler().getInfoHandler();
+                registeredWeapons = new ArrayList<>(infoHandler.getSortedWeaponList());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to scan weapons from WeaponMechanics", e);
+            return CompletableFuture.completedFuture(catalog);
+        }
 
+        if (weapons) {
+            plugin.getLogger().info("Found " + registeredWeapons.size()
+                    + " registered weapons from WeaponMechanics API");
             if (registeredWeapons.isEmpty()) {
                 plugin.getLogger().warning("No weapons found in WeaponMechanics! Make sure WM is properly configured.");
+            }
+        }
+        Map<String, List<String>> slotCategories = slotCategories();
+        // Grants are built off the main thread from a copy of the amounts. WM's weapon
+        // configuration is not modified after loading (a WM reload replaces it).
+        LoadoutsConfig.AmountSettings amounts = plugin.getLoadoutsConfig().getAmountSettings();
+        Configuration wmConfig = weapons ? weaponConfigurations() : null;
+        // WMP objects are read on the main thread, installed together with the catalog
+        Map<String, Object> wmpIndex = attachments ? wmpBridge.buildIndex() : null;
+
+        List<String> registered = registeredWeapons;
+        CompletableFuture<WeaponCatalog> result = new CompletableFuture<>();
+        scanExecutor.execute(() -> {
+            WeaponCatalog built;
+            try {
+                WeaponCatalog.Builder builder = lastBuilt.toBuilder();
+                if (weapons) {
+                    buildWeapons(builder, new File(wmDataFolder, "weapons"), registered, slotCategories, wmConfig,
+                            amounts);
+                }
+                if (attachments) {
+                    buildAttachments(builder, new File(wmDataFolder, "attachments"));
+                }
+                built = builder.build();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to scan weapons from WeaponMechanics", e);
+                result.complete(catalog); // Keep serving the previous catalog
                 return;
             }
+            lastBuilt = built;
+            publish(result, built, wmpIndex);
+        });
+        return result;
+    }
 
+    /**
+     * Categorize the registered weapons by the files that define them and
+     * build their grant table. Runs on the scanner thread. Weapons defined in
+     * files but not registered are left out: WeaponMechanics could not
+     * generate their items until it reloads.
+     */
+    private void buildWeapons(WeaponCatalog.Builder builder, File weaponsFolder, List<String> registeredWeapons,
+            Map<String, List<String>> slotCategories, Configuration wmConfig, LoadoutsConfig.AmountSettings amounts) {
+        Map<String, List<String>> categorizedWeapons = new LinkedHashMap<>();
+        Map<String, String> weaponCategories = new HashMap<>();
+        Map<String, List<String>> weaponAmmoTypes = new HashMap<>();
+        Map<String, String> weaponDisplayNames = new HashMap<>();
+        List<String> allWeapons = new ArrayList<>();
+
+        if (!registeredWeapons.isEmpty()) {
             // Build a map from YAML root key (weapon ID) to folder category
-            Map<String, String> weaponIdToCategory = scanWeaponFilesWithYamlParsing();
-            plugin.getLogger().info("Scanned folder structure with YAML parsing, found " + weaponIdToCategory.size()
-                    + " weapon definitions");
+            Map<String, String> weaponIdToCategory = scanWeaponFilesWithYamlParsing(weaponsFolder, weaponAmmoTypes,
+                    weaponDisplayNames);
+            plugin.getLogger().info("Scanned folder structure with YAML parsing, found "
+                    + weaponIdToCategory.size() + " weapon definitions");
 
             // Categorize each registered weapon based on YAML root key mapping
             for (String weaponTitle : registeredWeapons) {
@@ -99,29 +212,146 @@ public class WeaponMechanicsIntegration {
             for (List<String> weapons : categorizedWeapons.values()) {
                 Collections.sort(weapons);
             }
+        }
+
+        builder.weapons(categorizedWeapons, weaponCategories, weaponAmmoTypes, weaponDisplayNames, allWeapons,
+                slotCategories);
+
+        // Only reads configs, items are generated when first given
+        Map<String, WeaponGrant> grants = new HashMap<>();
+        for (String weaponTitle : allWeapons) {
+            grants.put(weaponTitle, buildGrant(weaponTitle, weaponCategories.get(weaponTitle),
+                    weaponAmmoTypes.getOrDefault(weaponTitle, List.of()), wmConfig, amounts));
+        }
+        builder.grants(grants);
+
+        // Log summary
+        for (Map.Entry<String, List<String>> entry : categorizedWeapons.entrySet()) {
+            plugin.getLogger().info("Category '" + entry.getKey() + "': " + entry.getValue().size()
+                    + " weapons - " + entry.getValue());
+        }
+    }
+
+    /**
+     * Swap in a catalog built on the scanner thread. Runs on the main thread,
+     * so everything running in one tick sees the same catalog; nothing is
+     * computed here. wmpIndex is null if attachments were not scanned.
+     */
+    private void publish(CompletableFuture<WeaponCatalog> result, WeaponCatalog built, Map<String, Object> wmpIndex) {
+        try {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                catalog = built;
+                weaponTemplates.invalidate();
+                ammoTemplates.invalidate();
+                if (wmpIndex != null) {
+                    wmpBridge.setIndex(wmpIndex);
+                    attachmentTemplates.invalidate();
+                }
+                result.complete(built);
+            });
+        } catch (IllegalStateException e) {
+            // Plugin is being disabled, nobody is left to read the catalog
+            result.complete(catalog);
+        }
+    }
+
+    /**
+     * Result of {@link #benchmarkParsers(int)}
+     */
+    public record ParserBenchmark(int files, int rounds, long streamingNanos, long fullNanos, int fallbacks,
+            int mismatches) {
+    }
+
+    /**
+     * Time the streaming extractor (including its fallbacks) against the full
+     * YamlConfiguration parse on every weapon and attachment file. Files are
+     * read into memory first so only parsing is measured, one file at a time
+     * on the scanner thread. Also counts files where both disagree.
+     */
+    public CompletableFuture<ParserBenchmark> benchmarkParsers(int rounds) {
+        File wmDataFolder = WeaponMechanics.getInstance().getDataFolder();
+        File weaponsFolder = new File(wmDataFolder, "weapons");
+        File attachmentsFolder = new File(wmDataFolder, "attachments");
+
+        return CompletableFuture.supplyAsync(() -> {
+            File[] categoryFolders = weaponsFolder.listFiles(File::isDirectory);
+            List<ScanFile> weaponFiles = categoryFolders != null ? collectWeaponFiles(categoryFolders)
+                    : new ArrayList<>();
+            List<ScanFile> attachmentFiles = new ArrayList<>();
+            if (attachmentsFolder.isDirectory()) {
+                scanAttachmentFolderRecursive(attachmentsFolder, attachmentsFolder, null, attachmentFiles);
+            }
 
-            // Log summary
-            for (Map.Entry<String, List<String>> entry : categorizedWeapons.entrySet()) {
-                plugin.getLogger().info("Category '" + entry.getKey() + "': " + entry.getValue().size() + " weapons - "
-                        + entry.getValue());
+            Map<File, String> weaponTexts = readTexts(weaponFiles);
+            Map<File, String> attachmentTexts = readTexts(attachmentFiles);
+
+            // Agreement check (also serves as warm-up)
+            int fallbacks = 0;
+            int mismatches = 0;
+            for (Map.Entry<File, String> entry : weaponTexts.entrySet()) {
+                WeaponFileData streamed = extractWeaponFileData(entry.getValue());
+                if (streamed == null) {
+                    fallbacks++;
+                } else if (!streamed.equals(parseWeaponFileFully(entry.getKey(), entry.getValue()))) {
+                    mismatches++;
+                }
+            }
+            for (Map.Entry<File, String> entry : attachmentTexts.entrySet()) {
+                AttachmentFileData streamed = extractAttachmentFileData(entry.getValue());
+                if (streamed == null) {
+                    fallbacks++;
+                } else if (!streamed.equals(parseAttachmentFileFully(entry.getKey(), entry.getValue()))) {
+                    mismatches++;
+                }
             }
 
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to scan weapons from WeaponMechanics", e);
+            long streamingNanos = 0;
+            long fullNanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                weaponTexts.forEach(this::parseWeaponFile);
+                attachmentTexts.forEach(this::parseAttachmentFile);
+                streamingNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                weaponTexts.forEach(this::parseWeaponFileFully);
+                attachmentTexts.forEach(this::parseAttachmentFileFully);
+                fullNanos += System.nanoTime() - start;
+            }
+
+            return new ParserBenchmark(weaponTexts.size() + attachmentTexts.size(), rounds, streamingNanos,
+                    fullNanos, fallbacks, mismatches);
+        }, scanExecutor);
+    }
+
+    private Map<File, String> readTexts(List<ScanFile> files) {
+        Map<File, String> texts = new LinkedHashMap<>();
+        for (ScanFile scanFile : files) {
+            byte[] content = readFile(scanFile.file());
+            if (content != null) {
+                texts.put(scanFile.file(), new String(content, StandardCharsets.UTF_8));
+            }
         }
+        return texts;
+    }
+
+    /**
+     * Stop the scanner thread
+     */
+    public void shutdown() {
+        scanExecutor.shutdownNow();
     }
 
     /**
      * Scan the WeaponMechanics weapons folder and parse each YAML file to extract
      * the root key.
-     * Returns: weaponId (root key) -> folderCategory
+     * Returns: weaponId (root key) -> folderCategory, ammo types go to
+     * {@code weaponAmmoTypes} and item display names to {@code weaponDisplayNames}
      */
-    private Map<String, String> scanWeaponFilesWithYamlParsing() {
+    private Map<String, String> scanWeaponFilesWithYamlParsing(File weaponsFolder,
+            Map<String, List<String>> weaponAmmoTypes, Map<String, String> weaponDisplayNames) {
         Map<String, String> result = new HashMap<>();
 
-        File wmDataFolder = WeaponMechanics.getInstance().getDataFolder();
-        File weaponsFolder = new File(wmDataFolder, "weapons");
-
         if (!weaponsFolder.exists() || !weaponsFolder.isDirectory()) {
             plugin.getLogger().warning("WeaponMechanics weapons folder not found: " + weaponsFolder.getPath());
             return result;
@@ -134,79 +364,212 @@ public class WeaponMechanicsIntegration {
             return result;
         }
 
+        List<ScanFile> files = collectWeaponFiles(categoryFolders);
+
+        // Parse in parallel; the ordered stream keeps results in walk order so
+        // merging below behaves exactly like parsing one file after another
+        AtomicInteger parsedCount = new AtomicInteger();
+        List<WeaponFileData> parsed = files.parallelStream()
+                .map(file -> loadWeaponFile(file, parsedCount))
+                .toList();
+        plugin.getLogger().info("Scanned " + files.size() + " weapon files (" + parsedCount.get()
+                + " parsed, the rest unchanged since the last scan)");
+
+        for (int i = 0; i < files.size(); i++) {
+            WeaponFileData data = parsed.get(i);
+            if (data == null) {
+                continue;
+            }
+            ScanFile scanFile = files.get(i);
+            for (String weaponId : data.weaponIds()) {
+                result.put(weaponId, scanFile.category());
+                plugin.getLogger().fine("Parsed weapon: " + weaponId + " from file " +
+                        scanFile.file().getName() + " in category: " + scanFile.category());
+            }
+            weaponAmmoTypes.putAll(data.ammoTypes());
+            weaponDisplayNames.putAll(data.displayNames());
+        }
+
+        manifest.retainScanned(weaponsFolder, scannedPaths(files));
+        manifest.save();
+
+        return result;
+    }
+
+    /**
+     * Get a weapon file's data from the manifest if the file is unchanged,
+     * otherwise parse it, record the result and count it in parsedCount
+     */
+    private WeaponFileData loadWeaponFile(ScanFile scanFile, AtomicInteger parsedCount) {
+        File weaponFile = scanFile.file();
+        byte[] cached = manifest.getIfUnchanged(weaponFile);
+        if (cached != null) {
+            WeaponFileData data = decodeWeaponFileData(cached);
+            if (data != null) {
+                return data;
+            }
+        }
+
+        long size = weaponFile.length();
+        long lastModified = weaponFile.lastModified();
+        byte[] content = readFile(weaponFile);
+        if (content == null) {
+            return null;
+        }
+
+        parsedCount.incrementAndGet();
+        WeaponFileData data = parseWeaponFile(weaponFile, new String(content, StandardCharsets.UTF_8));
+        if (data != null) {
+            manifest.put(weaponFile, size, lastModified, content, encodeWeaponFileData(data));
+        }
+        return data;
+    }
+
+    /**
+     * Walk the weapon category folders in the same order a sequential scan
+     * would visit them
+     */
+    private List<ScanFile> collectWeaponFiles(File[] categoryFolders) {
+        List<ScanFile> files = new ArrayList<>();
         for (File categoryFolder : categoryFolders) {
             String categoryName = categoryFolder.getName();
 
             // Scan yml files directly in this category folder
-            scanFolderWithYamlParsing(categoryFolder, categoryName, result);
+            collectYamlFiles(categoryFolder, categoryName, files);
 
             // Also scan subfolders (some setups may have nested structure)
             File[] subFolders = categoryFolder.listFiles(File::isDirectory);
             if (subFolders != null) {
                 for (File subFolder : subFolders) {
                     // Still use the parent category name, not the subfolder name
-                    scanFolderWithYamlParsing(subFolder, categoryName, result);
+                    collectYamlFiles(subFolder, categoryName, files);
                 }
             }
         }
-
-        return result;
+        return files;
     }
 
     /**
-     * Scan a folder for weapon yml files, parse each one to get the root key
-     * (weapon ID) and cache ammo types.
+     * Add the weapon/attachment yml files directly inside a folder to the scan
+     * list
      */
-    private void scanFolderWithYamlParsing(File folder, String categoryName, Map<String, String> result) {
-        File[] weaponFiles = folder
+    private void collectYamlFiles(File folder, String categoryName, List<ScanFile> files) {
+        File[] ymlFiles = folder
                 .listFiles((dir, name) -> name.endsWith(".yml") && !name.endsWith(".backup") && !name.startsWith("_"));
 
-        if (weaponFiles != null) {
-            for (File weaponFile : weaponFiles) {
-                try {
-                    // Parse the YAML file
-                    YamlConfiguration yaml = YamlConfiguration.loadConfiguration(weaponFile);
+        if (ymlFiles != null) {
+            for (File ymlFile : ymlFiles) {
+                files.add(new ScanFile(ymlFile, categoryName));
+            }
+        }
+    }
 
-                    // Get the root keys
-                    Set<String> rootKeys = yaml.getKeys(false);
+    /**
+     * Parse a weapon yml file to get the root keys (weapon IDs) and their ammo
+     * types, from the parser event stream when possible. Runs on a worker
+     * thread, so it only returns data and never touches the shared maps.
+     * Returns null if the file could not be parsed.
+     */
+    private WeaponFileData parseWeaponFile(File weaponFile, String text) {
+        WeaponFileData streamed = extractWeaponFileData(text);
+        if (streamed != null) {
+            return streamed;
+        }
+        return parseWeaponFileFully(weaponFile, text);
+    }
 
-                    if (rootKeys.isEmpty()) {
-                        plugin.getLogger().fine("No root keys found in: " + weaponFile.getName());
-                        continue;
-                    }
+    /**
+     * Get a weapon file's data from the parser event stream alone. Returns null
+     * if the file needs a full parse.
+     */
+    private static WeaponFileData extractWeaponFileData(String text) {
+        YamlKeyExtractor.Result extracted = WEAPON_EXTRACTOR.extract(text);
+        if (extracted == null) {
+            return null;
+        }
 
-                    // Each root key is a weapon ID defined in this file
-                    for (String weaponId : rootKeys) {
-                        // Skip system keys or empty keys
-                        if (weaponId == null || weaponId.isEmpty()) {
-                            continue;
-                        }
-
-                        result.put(weaponId, categoryName);
-
-                        // Extract and cache ammo types from this weapon's config
-                        List<String> ammoList = yaml.getStringList(weaponId + ".Reload.Ammo.Ammos");
-                        if (ammoList != null && !ammoList.isEmpty()) {
-                            weaponAmmoTypes.put(weaponId, new ArrayList<>(ammoList));
-                            plugin.getLogger().fine("Cached ammo for " + weaponId + ": " + ammoList);
-                        } else {
-                            // Try single ammo key
-                            String singleAmmo = yaml.getString(weaponId + ".Reload.Ammo.Ammo");
-                            if (singleAmmo != null && !singleAmmo.isEmpty()) {
-                                weaponAmmoTypes.put(weaponId, List.of(singleAmmo));
-                                plugin.getLogger().fine("Cached single ammo for " + weaponId + ": " + singleAmmo);
-                            }
-                        }
-
-                        plugin.getLogger().fine("Parsed weapon: " + weaponId + " from file " +
-                                weaponFile.getName() + " in category: " + categoryName);
-                    }
+        Map<String, List<String>> ammoTypes = new LinkedHashMap<>();
+        Map<String, String> displayNames = new LinkedHashMap<>();
+        for (String weaponId : extracted.rootKeys()) {
+            Map<String, Object> values = extracted.values().get(weaponId);
+            Object displayName = values.get(WEAPON_NAME_PATH);
+            if (displayName instanceof List<?>) {
+                return null; // Odd shape, let the full parse decide
+            }
+            if (displayName != null && !displayName.toString().isEmpty()) {
+                displayNames.put(weaponId, displayName.toString());
+            }
+            // Same precedence as the full parse: the list first, then the single key
+            if (values.get(AMMOS_PATH) instanceof List<?> ammoList && !ammoList.isEmpty()) {
+                List<String> types = new ArrayList<>();
+                for (Object ammo : ammoList) {
+                    types.add(String.valueOf(ammo));
+                }
+                ammoTypes.put(weaponId, types);
+            } else {
+                Object singleAmmo = values.get(AMMO_PATH);
+                if (singleAmmo != null && !singleAmmo.toString().isEmpty()) {
+                    ammoTypes.put(weaponId, List.of(singleAmmo.toString()));
+                }
+            }
+        }
+        return new WeaponFileData(new ArrayList<>(extracted.rootKeys()), ammoTypes, displayNames);
+    }
+
+    /**
+     * Full YamlConfiguration parse of a weapon file, used when the streaming
+     * extractor cannot handle it
+     */
+    private WeaponFileData parseWeaponFileFully(File weaponFile, String text) {
+        try {
+            // Parse the YAML file
+            YamlConfiguration yaml = new YamlConfiguration();
+            yaml.loadFromString(text);
 
-                } catch (Exception e) {
-                    plugin.getLogger()
-                            .warning("Failed to parse YAML file: " + weaponFile.getPath() + " - " + e.getMessage());
+            // Get the root keys
+            Set<String> rootKeys = yaml.getKeys(false);
+
+            if (rootKeys.isEmpty()) {
+                plugin.getLogger().fine("No root keys found in: " + weaponFile.getName());
+                return new WeaponFileData(List.of(), Map.of(), Map.of());
+            }
+
+            List<String> weaponIds = new ArrayList<>();
+            Map<String, List<String>> ammoTypes = new LinkedHashMap<>();
+            Map<String, String> displayNames = new LinkedHashMap<>();
+
+            // Each root key is a weapon ID defined in this file
+            for (String weaponId : rootKeys) {
+                // Skip system keys or empty keys
+                if (weaponId == null || weaponId.isEmpty()) {
+                    continue;
+                }
+
+                weaponIds.add(weaponId);
+
+                String displayName = yaml.getString(weaponId + "." + WEAPON_NAME_PATH);
+                if (displayName != null && !displayName.isEmpty()) {
+                    displayNames.put(weaponId, displayName);
+                }
+
+                // Extract ammo types from this weapon's config
+                List<String> ammoList = yaml.getStringList(weaponId + "." + AMMOS_PATH);
+                if (ammoList != null && !ammoList.isEmpty()) {
+                    ammoTypes.put(weaponId, new ArrayList<>(ammoList));
+                } else {
+                    // Try single ammo key
+                    String singleAmmo = yaml.getString(weaponId + "." + AMMO_PATH);
+                    if (singleAmmo != null && !singleAmmo.isEmpty()) {
+                        ammoTypes.put(weaponId, List.of(singleAmmo));
+                    }
                 }
             }
+
+            return new WeaponFileData(weaponIds, ammoTypes, displayNames);
+        } catch (Exception e) {
+            plugin.getLogger()
+                    .warning("Failed to parse YAML file: " + weaponFile.getPath() + " - " + e.getMessage());
+            return null;
         }
     }
 
@@ -214,61 +577,90 @@ public class WeaponMechanicsIntegration {
      * Get all categorized weapons
      */
     public Map<String, List<String>> getCategorizedWeapons() {
-        return Collections.unmodifiableMap(categorizedWeapons);
+        return catalog.getCategorizedWeapons();
     }
 
     /**
      * Get weapons in a specific category
      */
     public List<String> getWeaponsInCategory(String category) {
-        return categorizedWeapons.getOrDefault(category, Collections.emptyList());
+        return catalog.getWeaponsInCategory(category);
     }
 
     /**
      * Get the category of a weapon
      */
     public String getWeaponCategory(String weaponTitle) {
-        return weaponCategories.get(weaponTitle);
+        return catalog.getWeaponCategory(weaponTitle);
     }
 
     /**
      * Get all weapon titles
      */
     public List<String> getAllWeapons() {
-        return Collections.unmodifiableList(allWeapons);
+        return catalog.getAllWeapons();
     }
 
     /**
      * Get total weapon count
      */
     public int getTotalWeaponCount() {
-        return allWeapons.size();
+        return catalog.getAllWeapons().size();
     }
 
     /**
      * Get all category names
      */
     public Set<String> getCategories() {
-        return Collections.unmodifiableSet(categorizedWeapons.keySet());
+        return catalog.getCategorizedWeapons().keySet();
     }
 
     /**
      * Check if a weapon exists
      */
     public boolean weaponExists(String weaponTitle) {
-        return weaponCategories.containsKey(weaponTitle);
+        return catalog.weaponExists(weaponTitle);
     }
 
     /**
-     * Generate a weapon ItemStack
+     * Generate a weapon ItemStack. Served from the template cache, the
+     * returned item is always a fresh copy the caller may modify. A weapon
+     * that cannot be generated is reported once per scan.
      */
     public ItemStack generateWeapon(String weaponTitle) {
-        try {
-            return WeaponMechanicsAPI.generateWeapon(weaponTitle);
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to generate weapon: " + weaponTitle, e);
-            return null;
-        }
+        return weaponTemplates.get(weaponTitle, title -> {
+            try {
+                ItemStack weapon = WeaponMechanicsAPI.generateWeapon(title);
+                if (weapon == null) {
+                    plugin.getLogger().warning("WeaponMechanicsAPI.generateWeapon returned null for: " + title);
+                }
+                return weapon;
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to generate weapon: " + title, e);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Get the weapon template cache (for statistics)
+     */
+    public ItemTemplateCache getWeaponTemplates() {
+        return weaponTemplates;
+    }
+
+    /**
+     * Get the attachment template cache (for statistics)
+     */
+    public ItemTemplateCache getAttachmentTemplates() {
+        return attachmentTemplates;
+    }
+
+    /**
+     * Get the ammo template cache (for statistics)
+     */
+    public ItemTemplateCache getAmmoTemplates() {
+        return ammoTemplates;
     }
 
     /**
@@ -286,24 +678,74 @@ public class WeaponMechanicsIntegration {
      * Get the magazine size for a weapon
      */
     public int getMagazineSize(String weaponTitle) {
-        try {
-            return WeaponMechanics.getInstance()
-                    .getWeaponConfigurations()
-                    .getInt(weaponTitle + ".Reload.Magazine_Size");
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.FINE, "Failed to get magazine size for: " + weaponTitle, e);
-            return 0;
-        }
+        return getGrant(weaponTitle).getMagazineSize();
     }
 
     /**
      * Calculate ammo amount based on category multiplier
      */
     public int calculateAmmo(String weaponTitle) {
-        String category = getWeaponCategory(weaponTitle);
-        int magazineSize = getMagazineSize(weaponTitle);
-        int multiplier = plugin.getLoadoutsConfig().getAmmoMultiplier(category);
-        return magazineSize * multiplier;
+        return getGrant(weaponTitle).getReserveAmmo();
+    }
+
+    /**
+     * Get the grant data of a weapon. Weapons missing from the table (e.g.
+     * before the first scan finished) are computed on the spot.
+     */
+    public WeaponGrant getGrant(String weaponTitle) {
+        WeaponCatalog current = catalog;
+        WeaponGrant grant = current.getGrant(weaponTitle);
+        return grant != null ? grant
+                : buildGrant(weaponTitle, current.getWeaponCategory(weaponTitle), current.getAmmoTypes(weaponTitle),
+                        weaponConfigurations(), plugin.getLoadoutsConfig().getAmountSettings());
+    }
+
+    private WeaponGrant buildGrant(String weaponTitle, String category, List<String> ammoTypes,
+            Configuration wmConfig, LoadoutsConfig.AmountSettings amounts) {
+        int magazineSize = 0;
+        if (wmConfig != null) {
+            try {
+                magazineSize = wmConfig.getInt(weaponTitle + ".Reload.Magazine_Size");
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.FINE, "Failed to get magazine size for: " + weaponTitle, e);
+            }
+        }
+        int reserveAmmo = magazineSize * amounts.ammoMultiplier(category);
+
+        if (ammoTypes.isEmpty()) {
+            // Consumable without ammo (grenade, stim, knife, etc.)
+            return new WeaponGrant(magazineSize, reserveAmmo, null,
+                    Math.max(1, amounts.itemAmount(weaponTitle, category)), WeaponGrant.DEFAULT_MAX_STACK,
+                    weaponMaxStack(weaponTitle, wmConfig));
+        }
+        // Use the first ammo type (primary)
+        return new WeaponGrant(magazineSize, reserveAmmo, ammoTypes.get(0), 0, WeaponGrant.DEFAULT_MAX_STACK,
+                WeaponGrant.DEFAULT_MAX_STACK);
+    }
+
+    // Max stack size of a weapon's configured item, the default if it is unknown
+    private int weaponMaxStack(String weaponTitle, Configuration wmConfig) {
+        if (wmConfig != null) {
+            try {
+                ItemStack item = wmConfig.getObject(weaponTitle + ".Info.Weapon_Item", ItemStack.class);
+                if (item != null) {
+                    return item.getMaxStackSize();
+                }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.FINE, "Failed to get the weapon item of: " + weaponTitle, e);
+            }
+        }
+        return WeaponGrant.DEFAULT_MAX_STACK;
+    }
+
+    // WM's weapon configuration, or null if WM is not available
+    private Configuration weaponConfigurations() {
+        try {
+            return WeaponMechanics.getInstance().getWeaponConfigurations();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.FINE, "Failed to get the WeaponMechanics weapon configuration", e);
+            return null;
+        }
     }
 
     /**
@@ -312,8 +754,8 @@ public class WeaponMechanicsIntegration {
      * Returns list of ammo item IDs (e.g., ["12shell", "9mm"])
      */
     public List<String> getAmmoTypes(String weaponTitle) {
-        List<String> cached = weaponAmmoTypes.get(weaponTitle);
-        if (cached != null && !cached.isEmpty()) {
+        List<String> cached = catalog.getAmmoTypes(weaponTitle);
+        if (!cached.isEmpty()) {
             return new ArrayList<>(cached);
         }
 
@@ -327,50 +769,27 @@ public class WeaponMechanicsIntegration {
      * Returns a list of ammo items to give to the player.
      */
     public List<ItemStack> generateAmmoItems(String weaponTitle) {
-        List<ItemStack> ammoItems = new ArrayList<>();
-
-        int totalAmmo = calculateAmmo(weaponTitle);
-
-        if (totalAmmo <= 0) {
-            // Weapon doesn't use ammo (grenade, knife, etc.)
-            return ammoItems;
-        }
-
-        List<String> ammoTypes = getAmmoTypes(weaponTitle);
-        if (ammoTypes.isEmpty()) {
-            plugin.getLogger().warning("No ammo types cached for weapon: " + weaponTitle +
-                    ". Run /loadout syncwm to refresh.");
-            return ammoItems;
+        WeaponGrant grant = getGrant(weaponTitle);
+        if (grant.getPrimaryAmmo() == null || grant.getReserveAmmo() <= 0) {
+            return new ArrayList<>();
         }
 
-        // Use the first ammo type (primary)
-        String primaryAmmo = ammoTypes.get(0);
-
-        try {
-            // Generate ammo using WM API (non-magazine version)
-            ItemStack ammoItem = WeaponMechanicsAPI.generateAmmo(primaryAmmo, false);
-
-            if (ammoItem != null) {
-                // Set the amount based on calculated ammo
-                int maxStack = ammoItem.getMaxStackSize();
-                int remaining = totalAmmo;
-
-                while (remaining > 0) {
-                    ItemStack stack = ammoItem.clone();
-                    int amount = Math.min(remaining, maxStack);
-                    stack.setAmount(amount);
-                    ammoItems.add(stack);
-                    remaining -= amount;
-                }
-
-                plugin.getLogger().info("Generated " + totalAmmo + " " + primaryAmmo + " for " + weaponTitle);
-            } else {
-                plugin.getLogger().warning("WeaponMechanicsAPI.generateAmmo returned null for: " + primaryAmmo);
+        // Generated (or found missing) once per ammo type until the next rescan
+        ItemStack ammo = ammoTemplates.get(grant.getPrimaryAmmo(), title -> {
+            ItemStack generated = generateAmmo(title, false);
+            if (generated == null) {
+                plugin.getLogger().warning("WeaponMechanicsAPI.generateAmmo returned null for: " + title);
             }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to generate ammo for: " + weaponTitle, e);
+            return generated;
+        });
+        if (ammo == null) {
+            return new ArrayList<>();
+        }
+        List<ItemStack> ammoItems = grant.createAmmoItems(ammo);
+        if (!ammoItems.isEmpty()) {
+            plugin.getLogger().info("Generated " + grant.getReserveAmmo() + " " + grant.getPrimaryAmmo() + " for "
+                    + weaponTitle);
         }
-
         return ammoItems;
     }
 
@@ -400,42 +819,57 @@ public class WeaponMechanicsIntegration {
     }
 
     /**
-     * Get weapons allowed for a specific slot type (strict YAML-based matching)
+     * Slot type -> allowed categories, from the current config
      */
-    public Map<String, List<String>> getWeaponsForSlot(String slotType) {
+    private Map<String, List<String>> slotCategories() {
+        Map<String, List<String>> result = new HashMap<>();
+        for (LoadoutsConfig.SlotConfig slotConfig : plugin.getLoadoutsConfig().getSlots().values()) {
+            result.put(slotConfig.key(), slotConfig.allowedCategories());
+        }
+        return result;
+    }
+
+    /**
+     * Get weapons allowed for a specific slot type (strict YAML-based matching).
+     * Precomputed per slot when the catalog is published.
+     */
+    public WeaponCatalog.SlotWeapons getSlotWeapons(String slotType) {
+        return catalog.getSlotWeapons(slotType);
+    }
+
+    /**
+     * Search the weapons allowed for a slot type by ID or display name (prefix
+     * or substring), best matches first
+     */
+    public List<String> searchWeaponsForSlot(String slotType, String query) {
         LoadoutsConfig.SlotConfig slotConfig = plugin.getLoadoutsConfig().getSlot(slotType);
         if (slotConfig == null) {
-            plugin.getLogger().warning("No slot config found for: " + slotType);
-            return Collections.emptyMap();
+            return List.of();
         }
 
-        Map<String, List<String>> result = new LinkedHashMap<>();
-
-        // Only include weapons that are in the allowed categories
-        for (String allowedCategory : slotConfig.allowedCategories()) {
-            List<String> weaponsInCategory = categorizedWeapons.get(allowedCategory);
-            if (weaponsInCategory != null && !weaponsInCategory.isEmpty()) {
-                result.put(allowedCategory, new ArrayList<>(weaponsInCategory));
+        WeaponCatalog current = catalog;
+        List<String> result = new ArrayList<>();
+        for (CatalogSearchIndex.Entry entry : current.getSearchIndex().search(query, CatalogSearchIndex.Kind.WEAPON,
+                Integer.MAX_VALUE)) {
+            if (slotConfig.allowedCategories().contains(current.getWeaponCategory(entry.id()))) {
+                result.add(entry.id());
             }
         }
-
-        int totalWeapons = result.values().stream().mapToInt(List::size).sum();
-        plugin.getLogger().fine("getWeaponsForSlot(" + slotType + "): " + totalWeapons + " weapons from "
-                + result.size() + " categories");
-
         return result;
     }
 
+    /**
+     * Get weapons allowed for a specific slot type, by category
+     */
+    public Map<String, List<String>> getWeaponsForSlot(String slotType) {
+        return getSlotWeapons(slotType).byCategory();
+    }
+
     /**
      * Get flat list of weapons for a slot type
      */
     public List<String> getFlatWeaponsForSlot(String slotType) {
-        List<String> result = new ArrayList<>();
-        Map<String, List<String>> categorized = getWeaponsForSlot(slotType);
-        for (List<String> weapons : categorized.values()) {
-            result.addAll(weapons);
-        }
-        return result;
+        return getSlotWeapons(slotType).asList();
     }
 
     // ==================== Attachment Management ====================
@@ -443,96 +877,330 @@ public class WeaponMechanicsIntegration {
     /**
      * Scan attachments from WeaponMechanics/attachments folder.
      * One YAML file can contain multiple attachment definitions.
+     * Runs on the scanner thread.
      */
-    public void scanAttachments() {
-        categorizedAttachments.clear();
-        attachmentCategories.clear();
-        attachmentItemData.clear();
-        allAttachments.clear();
-
-        File wmDataFolder = WeaponMechanics.getInstance().getDataFolder();
-        File attachmentsFolder = new File(wmDataFolder, "attachments");
+    private void buildAttachments(WeaponCatalog.Builder builder, File attachmentsFolder) {
+        Map<String, List<String>> categorizedAttachments = new LinkedHashMap<>();
+        Map<String, String> attachmentCategories = new HashMap<>();
+        Map<String, AttachmentItemData> attachmentItemData = new HashMap<>();
+        Map<String, List<String>> attachmentWeapons = new HashMap<>();
+        List<String> allAttachments = new ArrayList<>();
+        int fileCount = 0;
+        AtomicInteger parsedCount = new AtomicInteger();
 
         if (!attachmentsFolder.exists() || !attachmentsFolder.isDirectory()) {
             plugin.getLogger().info("Attachments folder not found: " + attachmentsFolder.getPath());
-            return;
-        }
+        } else {
+            // Walk first, then parse the files in parallel and merge in walk order
+            List<ScanFile> files = new ArrayList<>();
+            scanAttachmentFolderRecursive(attachmentsFolder, attachmentsFolder, null, files);
+            fileCount = files.size();
+
+            List<AttachmentFileData> parsed = files.parallelStream()
+                    .map(file -> loadAttachmentFile(file, parsedCount))
+                    .toList();
+
+            for (int i = 0; i < files.size(); i++) {
+                AttachmentFileData data = parsed.get(i);
+                if (data == null) {
+                    continue;
+                }
+                String categoryName = files.get(i).category();
+                for (String attachmentId : data.attachmentIds()) {
+                    categorizedAttachments.computeIfAbsent(categoryName, k -> new ArrayList<>()).add(attachmentId);
+                    attachmentCategories.put(attachmentId, categoryName);
+                    allAttachments.add(attachmentId);
+                }
+                attachmentItemData.putAll(data.itemData());
+                attachmentWeapons.putAll(data.weapons());
+            }
 
-        scanAttachmentFolderRecursive(attachmentsFolder, null);
+            manifest.retainScanned(attachmentsFolder, scannedPaths(files));
+            manifest.save();
 
-        // Sort attachments in each category
-        for (List<String> attachments : categorizedAttachments.values()) {
-            Collections.sort(attachments);
+            // Sort attachments in each category
+            for (List<String> attachments : categorizedAttachments.values()) {
+                Collections.sort(attachments);
+            }
         }
 
-        plugin.getLogger().info("Loaded " + allAttachments.size() + " attachments from WeaponMechanics.");
+        builder.attachments(categorizedAttachments, attachmentCategories, attachmentItemData, allAttachments,
+                attachmentWeapons);
+
+        plugin.getLogger().info("Loaded " + allAttachments.size() + " attachments from WeaponMechanics ("
+                + parsedCount.get() + " of " + fileCount + " files parsed).");
         for (Map.Entry<String, List<String>> entry : categorizedAttachments.entrySet()) {
             plugin.getLogger().fine("Attachment category '" + entry.getKey() + "': " + entry.getValue().size());
         }
     }
 
     /**
-     * Recursively scan folder for attachment YAML files
+     * Recursively collect attachment YAML files with their category
      */
-    private void scanAttachmentFolderRecursive(File folder, String parentCategory) {
+    private void scanAttachmentFolderRecursive(File attachmentsRoot, File folder, String parentCategory,
+            List<ScanFile> files) {
         // Use this folder's name as category if we're in a subfolder
         String categoryName = (parentCategory == null) ? folder.getName() : parentCategory;
 
         // If this is a direct subfolder of attachments folder, use its name as category
-        File attachmentsRoot = new File(WeaponMechanics.getInstance().getDataFolder(), "attachments");
         if (folder.getParentFile().equals(attachmentsRoot)) {
             categoryName = folder.getName().toLowerCase();
         }
 
         // Scan yml files in this folder
-        File[] ymlFiles = folder
-                .listFiles((dir, name) -> name.endsWith(".yml") && !name.endsWith(".backup") && !name.startsWith("_"));
-
-        if (ymlFiles != null) {
-            for (File ymlFile : ymlFiles) {
-                parseAttachmentFile(ymlFile, categoryName);
-            }
-        }
+        collectYamlFiles(folder, categoryName, files);
 
         // Scan subfolders
         File[] subFolders = folder.listFiles(File::isDirectory);
         if (subFolders != null) {
             for (File subFolder : subFolders) {
                 // Use subfolder name as new category
-                scanAttachmentFolderRecursive(subFolder, subFolder.getName().toLowerCase());
+                scanAttachmentFolderRecursive(attachmentsRoot, subFolder, subFolder.getName().toLowerCase(), files);
+            }
+        }
+    }
+
+    /**
+     * Get an attachment file's data from the manifest if the file is
+     * unchanged, otherwise parse it, record the result and count it in
+     * parsedCount
+     */
+    private AttachmentFileData loadAttachmentFile(ScanFile scanFile, AtomicInteger parsedCount) {
+        File ymlFile = scanFile.file();
+        byte[] cached = manifest.getIfUnchanged(ymlFile);
+        if (cached != null) {
+            AttachmentFileData data = decodeAttachmentFileData(cached);
+            if (data != null) {
+                return data;
             }
         }
+
+        long size = ymlFile.length();
+        long lastModified = ymlFile.lastModified();
+        byte[] content = readFile(ymlFile);
+        if (content == null) {
+            return null;
+        }
+
+        parsedCount.incrementAndGet();
+        AttachmentFileData data = parseAttachmentFile(ymlFile, new String(content, StandardCharsets.UTF_8));
+        if (data != null) {
+            manifest.put(ymlFile, size, lastModified, content, encodeAttachmentFileData(data));
+        }
+        return data;
     }
 
     /**
-     * Parse a single attachment YAML file (may contain multiple attachments)
+     * Parse a single attachment YAML file (may contain multiple attachments),
+     * from the parser event stream when possible. Runs on a worker thread and
+     * only returns data. Returns null if the file could not be parsed.
      */
-    private void parseAttachmentFile(File ymlFile, String categoryName) {
+    private AttachmentFileData parseAttachmentFile(File ymlFile, String text) {
+        AttachmentFileData streamed = extractAttachmentFileData(text);
+        if (streamed != null) {
+            return streamed;
+        }
+        return parseAttachmentFileFully(ymlFile, text);
+    }
+
+    /**
+     * Get an attachment file's data from the parser event stream alone.
+     * Returns null if the file needs a full parse.
+     */
+    private static AttachmentFileData extractAttachmentFileData(String text) {
+        YamlKeyExtractor.Result extracted = ATTACHMENT_EXTRACTOR.extract(text);
+        if (extracted == null) {
+            return null;
+        }
+
+        Map<String, AttachmentItemData> itemData = new LinkedHashMap<>();
+        Map<String, List<String>> weapons = new LinkedHashMap<>();
+        for (String attachmentId : extracted.rootKeys()) {
+            Map<String, Object> values = extracted.values().get(attachmentId);
+            Object material = values.get(ITEM_TYPE_PATH);
+            Object displayName = values.get(ITEM_NAME_PATH);
+            if (material instanceof List<?> || displayName instanceof List<?>) {
+                return null; // Odd shape, let the full parse decide
+            }
+            // getInt() only accepts numbers, a quoted value falls back to the default
+            int customModelData = values.get(ITEM_MODEL_DATA_PATH) instanceof Integer number ? number : 0;
+            itemData.put(attachmentId, new AttachmentItemData(
+                    material != null ? material.toString() : "IRON_NUGGET",
+                    customModelData,
+                    displayName != null ? displayName.toString() : attachmentId));
+            // Like getStringList(), anything but a non-empty list means no restriction
+            if (values.get(WEAPONS_PATH) instanceof List<?> weaponList && !weaponList.isEmpty()) {
+                weapons.put(attachmentId, weaponList.stream().map(String::valueOf).toList());
+            }
+        }
+        return new AttachmentFileData(new ArrayList<>(extracted.rootKeys()), itemData, weapons);
+    }
+
+    /**
+     * Full YamlConfiguration parse of an attachment file, used when the
+     * streaming extractor cannot handle it
+     */
+    private AttachmentFileData parseAttachmentFileFully(File ymlFile, String text) {
         try {
-            YamlConfiguration yaml = YamlConfiguration.loadConfiguration(ymlFile);
+            YamlConfiguration yaml = new YamlConfiguration();
+            yaml.loadFromString(text);
             Set<String> rootKeys = yaml.getKeys(false);
 
+            List<String> attachmentIds = new ArrayList<>();
+            Map<String, AttachmentItemData> itemData = new LinkedHashMap<>();
+            Map<String, List<String>> weapons = new LinkedHashMap<>();
             for (String attachmentId : rootKeys) {
                 if (attachmentId == null || attachmentId.isEmpty())
                     continue;
 
-                categorizedAttachments.computeIfAbsent(categoryName, k -> new ArrayList<>()).add(attachmentId);
-                attachmentCategories.put(attachmentId, categoryName);
-                allAttachments.add(attachmentId);
+                attachmentIds.add(attachmentId);
 
                 // Cache item data for icon generation
                 String basePath = attachmentId + ".Item.";
                 String material = yaml.getString(basePath + "Type", "IRON_NUGGET");
                 int customModelData = yaml.getInt(basePath + "Custom_Model_Data", 0);
                 String displayName = yaml.getString(basePath + "Name", attachmentId);
-                attachmentItemData.put(attachmentId, new AttachmentItemData(material, customModelData, displayName));
+                itemData.put(attachmentId, new AttachmentItemData(material, customModelData, displayName));
+
+                // Weapons the attachment fits; no list means every weapon
+                List<String> weaponList = yaml.getStringList(attachmentId + "." + WEAPONS_PATH);
+                if (!weaponList.isEmpty()) {
+                    weapons.put(attachmentId, List.copyOf(weaponList));
+                }
 
                 plugin.getLogger().fine("Parsed attachment: " + attachmentId +
                         " from " + ymlFile.getName() + " (CMD: " + customModelData + ")");
             }
+            return new AttachmentFileData(attachmentIds, itemData, weapons);
         } catch (Exception e) {
             plugin.getLogger()
                     .warning("Failed to parse attachment file: " + ymlFile.getPath() + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== Scan Manifest Helpers ====================
+
+    private static Set<String> scannedPaths(List<ScanFile> files) {
+        Set<String> paths = new HashSet<>();
+        for (ScanFile scanFile : files) {
+            paths.add(scanFile.file().getAbsolutePath());
+        }
+        return paths;
+    }
+
+    private byte[] readFile(File file) {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to read YAML file: " + file.getPath() + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] encodeWeaponFileData(WeaponFileData data) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(data.weaponIds().size());
+            for (String weaponId : data.weaponIds()) {
+                out.writeUTF(weaponId);
+            }
+            out.writeInt(data.ammoTypes().size());
+            for (Map.Entry<String, List<String>> entry : data.ammoTypes().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String ammo : entry.getValue()) {
+                    out.writeUTF(ammo);
+                }
+            }
+            out.writeInt(data.displayNames().size());
+            for (Map.Entry<String, String> entry : data.displayNames().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen for an in-memory stream
+        }
+    }
+
+    private static WeaponFileData decodeWeaponFileData(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int idCount = in.readInt();
+            List<String> weaponIds = new ArrayList<>(idCount);
+            for (int i = 0; i < idCount; i++) {
+                weaponIds.add(in.readUTF());
+            }
+            int ammoCount = in.readInt();
+            Map<String, List<String>> ammoTypes = new LinkedHashMap<>();
+            for (int i = 0; i < ammoCount; i++) {
+                String weaponId = in.readUTF();
+                int typeCount = in.readInt();
+                List<String> types = new ArrayList<>(typeCount);
+                for (int j = 0; j < typeCount; j++) {
+                    types.add(in.readUTF());
+                }
+                ammoTypes.put(weaponId, types);
+            }
+            int nameCount = in.readInt();
+            Map<String, String> displayNames = new LinkedHashMap<>();
+            for (int i = 0; i < nameCount; i++) {
+                displayNames.put(in.readUTF(), in.readUTF());
+            }
+            return new WeaponFileData(weaponIds, ammoTypes, displayNames);
+        } catch (IOException e) {
+            return null; // Corrupt entry, parse the file again
+        }
+    }
+
+    private static byte[] encodeAttachmentFileData(AttachmentFileData data) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(data.attachmentIds().size());
+            for (String attachmentId : data.attachmentIds()) {
+                AttachmentItemData item = data.itemData().get(attachmentId);
+                out.writeUTF(attachmentId);
+                out.writeUTF(item.material());
+                out.writeInt(item.customModelData());
+                out.writeUTF(item.displayName());
+                List<String> weapons = data.weapons().getOrDefault(attachmentId, List.of());
+                out.writeInt(weapons.size());
+                for (String weapon : weapons) {
+                    out.writeUTF(weapon);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen for an in-memory stream
+        }
+    }
+
+    private static AttachmentFileData decodeAttachmentFileData(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = in.readInt();
+            List<String> attachmentIds = new ArrayList<>(count);
+            Map<String, AttachmentItemData> itemData = new LinkedHashMap<>();
+            Map<String, List<String>> weapons = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String attachmentId = in.readUTF();
+                attachmentIds.add(attachmentId);
+                itemData.put(attachmentId, new AttachmentItemData(in.readUTF(), in.readInt(), in.readUTF()));
+                int weaponCount = in.readInt();
+                if (weaponCount > 0) {
+                    List<String> weaponList = new ArrayList<>(weaponCount);
+                    for (int j = 0; j < weaponCount; j++) {
+                        weaponList.add(in.readUTF());
+                    }
+                    weapons.put(attachmentId, weaponList);
+                }
+            }
+            return new AttachmentFileData(attachmentIds, itemData, weapons);
+        } catch (IOException e) {
+            return null; // Corrupt entry, parse the file again
         }
     }
 
@@ -540,112 +1208,62 @@ public class WeaponMechanicsIntegration {
      * Get attachments for specific categories (used by attachment slots)
      */
     public List<String> getAttachmentsForCategories(List<String> categories) {
-        List<String> result = new ArrayList<>();
-        for (String category : categories) {
-            List<String> attachments = categorizedAttachments.get(category.toLowerCase());
-            if (attachments != null) {
-                result.addAll(attachments);
-            }
-        }
-        Collections.sort(result);
-        return result;
+        return getAttachmentsForWeapon(categories, null);
+    }
+
+    /**
+     * Get attachments for specific categories that fit a weapon, sorted by ID.
+     * A null weapon returns every attachment in the categories.
+     */
+    public List<String> getAttachmentsForWeapon(List<String> categories, String weaponTitle) {
+        return catalog.getAttachmentCompatibility().filter(categories, weaponTitle);
     }
 
     /**
      * Get all categorized attachments
      */
     public Map<String, List<String>> getCategorizedAttachments() {
-        return Collections.unmodifiableMap(categorizedAttachments);
+        return catalog.getCategorizedAttachments();
     }
 
     /**
      * Get total attachment count
      */
     public int getTotalAttachmentCount() {
-        return allAttachments.size();
+        return catalog.getAllAttachments().size();
     }
 
     /**
      * Generate attachment ItemStack using WeaponMechanicsPlus API.
-     * Iterates through attachment configuration to find matching attachment by ID,
-     * then calls Attachment.generateItem() to get proper ItemStack.
+     * The attachment is taken from the index built by the last attachment
+     * scan, then Attachment.generateItem() gives the proper ItemStack. Served
+     * from a template cache cleared on every attachment scan, the returned item
+     * is always a fresh copy the caller may modify. A missing attachment is
+     * looked up and reported once per scan.
      */
-    @SuppressWarnings("unchecked")
     public ItemStack generateAttachmentItem(String attachmentId) {
-        try {
-            // Get WeaponMechanicsPlus instance
-            Class<?> wmpClass = Class.forName("com.cjcrafter.weaponmechanicsplus.WeaponMechanicsPlus");
-            Object wmpInstance = wmpClass.getMethod("getInstance").invoke(null);
-
-            // Get attachment configuration (implements Iterable<Map.Entry<String, Object>>)
-            Object attachmentConfig = wmpClass.getMethod("getAttachmentConfiguration").invoke(wmpInstance);
-
-            // Configuration implements Iterable, so we can iterate through entries
-            // Each entry key is the attachment ID, value is the Attachment object
-            if (attachmentConfig instanceof Iterable<?> iterable) {
-                for (Object entryObj : iterable) {
-                    if (entryObj instanceof java.util.Map.Entry<?, ?> entry) {
-                        String key = (String) entry.getKey();
-                        Object value = entry.getValue();
-
-                        // Check if this is the attachment we're looking for
-                        if (attachmentId.equals(key) && value != null) {
-                            // Call Attachment.generateItem() to get proper ItemStack
-                            java.lang.reflect.Method generateItemMethod = value.getClass().getMethod("generateItem");
-                            Object result = generateItemMethod.invoke(value);
-
-                            if (result instanceof ItemStack itemStack) {
-                                plugin.getLogger().fine("Generated attachment via WMP API: " + attachmentId);
-                                return itemStack;
-                            }
-                        }
-                    }
-                }
+        return attachmentTemplates.get(attachmentId, id -> {
+            ItemStack item = wmpBridge.generateItem(id);
+            if (item != null) {
+                plugin.getLogger().fine("Generated attachment via WMP API: " + id);
             }
-
-            plugin.getLogger().warning("Attachment not found in WMP config: " + attachmentId);
-        } catch (ClassNotFoundException e) {
-            plugin.getLogger().warning("WeaponMechanicsPlus not found. Cannot generate attachments.");
-        } catch (NoSuchMethodException e) {
-            plugin.getLogger().warning("WMP API method not found: " + e.getMessage());
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to generate attachment via WMP API: " + attachmentId, e);
-        }
-
-        return null;
+            return item;
+        });
     }
 
     /**
      * Generate consumable items (for weapons without ammo like grenades).
      * Uses item-amounts config to determine quantity.
      */
-    public List<ItemStack> generateConsumableItems(String weaponTitle, int amount) {
-        List<ItemStack> items = new ArrayList<>();
-
-        if (amount <= 0) {
-            amount = 1;
-        }
-
-        try {
-            ItemStack baseItem = generateWeapon(weaponTitle);
-            if (baseItem != null) {
-                int maxStack = baseItem.getMaxStackSize();
-                int remaining = amount;
-
-                while (remaining > 0) {
-                    ItemStack stack = baseItem.clone();
-                    int stackAmount = Math.min(remaining, maxStack);
-                    stack.setAmount(stackAmount);
-                    items.add(stack);
-                    remaining -= stackAmount;
-                }
-
-                plugin.getLogger().info("Generated " + amount + " x " + weaponTitle + " (consumable)");
-            }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to generate consumable: " + weaponTitle, e);
+    public List<ItemStack> generateConsumableItems(String weaponTitle) {
+        WeaponGrant grant = getGrant(weaponTitle);
+        ItemStack baseItem = generateWeapon(weaponTitle);
+        if (baseItem == null) {
+            return new ArrayList<>();
         }
 
+        List<ItemStack> items = grant.createConsumableItems(baseItem);
+        plugin.getLogger().info("Generated " + grant.getConsumableAmount() + " x " + weaponTitle + " (consumable)");
         return items;
     }
 
@@ -653,6 +1271,6 @@ public class WeaponMechanicsIntegration {
      * Check if a weapon has ammo configuration (i.e., not a consumable)
      */
     public boolean hasAmmoConfig(String weaponTitle) {
-        return weaponAmmoTypes.containsKey(weaponTitle) && !weaponAmmoTypes.get(weaponTitle).isEmpty();
+        return !catalog.getAmmoTypes(weaponTitle).isEmpty();
     }
 }
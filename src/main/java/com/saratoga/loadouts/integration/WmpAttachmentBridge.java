@@ -0,0 +1,152 @@
+package com.saratoga.loadouts.integration;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to WeaponMechanicsPlus attachments. WMP is an optional dependency, so
+ * it is reached through MethodHandles resolved once on first use instead of
+ * being compiled against. Attachments are looked up in an ID index built at
+ * scan time.
+ */
+public class WmpAttachmentBridge {
+
+    private static final String WMP_CLASS = "com.cjcrafter.weaponmechanicsplus.WeaponMechanicsPlus";
+
+    private final Logger logger;
+
+    // Resolved on first use; unavailable stays true if WMP is missing
+    private boolean resolved;
+    private volatile boolean unavailable;
+    private MethodHandle getInstance;
+    private MethodHandle getAttachmentConfiguration;
+
+    // Attachment class -> its generateItem() handle, bound per object at call time.
+    // Empty for classes without one, so they are resolved (and warned about) once.
+    private final Map<Class<?>, Optional<MethodHandle>> generateItemHandles = new ConcurrentHashMap<>();
+
+    // Attachment ID -> WMP Attachment object
+    private volatile Map<String, Object> index = Map.of();
+
+    public WmpAttachmentBridge(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Read the WMP attachment configuration into an ID index. Call on the main
+     * thread; the result is installed with {@link #setIndex(Map)}.
+     */
+    public Map<String, Object> buildIndex() {
+        if (!resolve()) {
+            return Map.of();
+        }
+
+        Map<String, Object> built = new HashMap<>();
+        try {
+            Object wmpInstance = getInstance.invoke();
+            Object attachmentConfig = getAttachmentConfiguration.invoke(wmpInstance);
+
+            // Configuration implements Iterable<Map.Entry<String, Object>>,
+            // each key is the attachment ID and the value the Attachment object
+            if (attachmentConfig instanceof Iterable<?> iterable) {
+                for (Object entryObj : iterable) {
+                    if (entryObj instanceof Map.Entry<?, ?> entry && entry.getKey() instanceof String key
+                            && entry.getValue() != null) {
+                        built.put(key, entry.getValue());
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            logger.log(Level.WARNING, "Failed to read WMP attachment configuration", e);
+        }
+        return Collections.unmodifiableMap(built);
+    }
+
+    public void setIndex(Map<String, Object> index) {
+        this.index = index;
+    }
+
+    /**
+     * Generate the item of an attachment, or null if WMP is missing or does not
+     * know the ID. Not cached here: callers keep the result, failures included,
+     * until the next scan, so an unknown ID is reported once per scan.
+     */
+    public ItemStack generateItem(String attachmentId) {
+        Object attachment = index.get(attachmentId);
+        if (attachment == null) {
+            if (!unavailable) {
+                logger.warning("Attachment not found in WMP config: " + attachmentId);
+            }
+            return null;
+        }
+
+        try {
+            Optional<MethodHandle> generateItem = generateItemHandles.computeIfAbsent(attachment.getClass(),
+                    this::resolveGenerateItem);
+            if (generateItem.isEmpty()) {
+                return null;
+            }
+            if (generateItem.get().invoke(attachment) instanceof ItemStack itemStack) {
+                return itemStack;
+            }
+        } catch (Throwable e) {
+            logger.log(Level.WARNING, "Failed to generate attachment via WMP API: " + attachmentId, e);
+        }
+        return null;
+    }
+
+    private synchronized boolean resolve() {
+        if (!resolved) {
+            resolved = true;
+            try {
+                Class<?> wmpClass = Class.forName(WMP_CLASS);
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                getInstance = lookup.unreflect(wmpClass.getMethod("getInstance"))
+                        .asType(MethodType.methodType(Object.class));
+                getAttachmentConfiguration = lookup.unreflect(wmpClass.getMethod("getAttachmentConfiguration"))
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (ClassNotFoundException e) {
+                logger.warning("WeaponMechanicsPlus not found. Cannot generate attachments.");
+                unavailable = true;
+            } catch (NoSuchMethodException e) {
+                logger.warning("WMP API method not found: " + e.getMessage());
+                unavailable = true;
+            } catch (IllegalAccessException e) {
+                logger.log(Level.WARNING, "WMP API is not accessible", e);
+                unavailable = true;
+            }
+        }
+        return !unavailable;
+    }
+
+    // Empty when the class has no usable generateItem(). The method is taken
+    // from the nearest public class, as the concrete type may be package-private.
+    private Optional<MethodHandle> resolveGenerateItem(Class<?> attachmentClass) {
+        for (Class<?> type = attachmentClass; type != null; type = type.getSuperclass()) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                continue;
+            }
+            try {
+                Method method = type.getMethod("generateItem");
+                return Optional.of(MethodHandles.publicLookup().unreflect(method)
+                        .asType(MethodType.methodType(Object.class, Object.class)));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                break;
+            }
+        }
+        logger.warning("WMP API method not found: " + attachmentClass.getName() + ".generateItem");
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,220 @@
+package com.saratoga.loadouts.integration;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.StringReader;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls the root keys and a few fixed paths under each root key out of a YAML
+ * document by walking SnakeYAML parser events, without building the node tree
+ * or a YamlConfiguration.
+ *
+ * Anything this does not handle the same way as YamlConfiguration (aliases,
+ * merge keys, dotted or duplicate root keys, several documents, wanted paths
+ * with an unexpected shape...) makes {@link #extract(String)} return null, and
+ * the caller falls back to a full parse.
+ */
+public final class YamlKeyExtractor {
+
+    /**
+     * Root keys in document order, and per root key the wanted paths that were
+     * present. A value is a String or Integer for scalars (as YamlConfiguration
+     * would type them) or a List of Strings for sequences.
+     */
+    public record Result(List<String> rootKeys, Map<String, Map<String, Object>> values) {
+    }
+
+    // Thrown internally when the document needs a full parse
+    private static final class Unsupported extends Exception {
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Frame {
+        final boolean mapping;
+        final String path; // Path relative to the root key, "" for the root key's own value
+        final boolean collect; // Sequence whose scalars are a wanted value
+        String key; // Mapping: key waiting for its value, null while expecting a key
+
+        Frame(boolean mapping, String path, boolean collect) {
+            this.mapping = mapping;
+            this.path = path;
+            this.collect = collect;
+        }
+    }
+
+    // Plain scalars are typed with the same YAML 1.1 rules the full parser uses
+    private static final Resolver RESOLVER = new Resolver();
+    private static final Pattern CANONICAL_INT = Pattern.compile("-?(0|[1-9][0-9]{0,8})");
+
+    private final Set<String> wantedPaths;
+
+    /**
+     * @param wantedPaths paths relative to each root key, e.g. "Reload.Ammo.Ammos"
+     */
+    public YamlKeyExtractor(Set<String> wantedPaths) {
+        this.wantedPaths = Set.copyOf(wantedPaths);
+    }
+
+    /**
+     * Extract the root keys and wanted values, or null if the document has to
+     * be parsed fully
+     */
+    public Result extract(String content) {
+        try {
+            return walk(content);
+        } catch (Unsupported e) {
+            return null;
+        } catch (RuntimeException e) {
+            // Syntax errors etc. - let the full parser produce the usual error
+            return null;
+        }
+    }
+
+    private Result walk(String content) throws Unsupported {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(64 * 1024 * 1024);
+        Yaml yaml = new Yaml(options);
+
+        List<String> rootKeys = new ArrayList<>();
+        Map<String, Map<String, Object>> values = new LinkedHashMap<>();
+        Deque<Frame> stack = new ArrayDeque<>();
+        String rootKey = null;
+        List<String> collecting = null;
+        int documents = 0;
+
+        for (Event event : yaml.parse(new StringReader(content))) {
+            if (event instanceof StreamStartEvent || event instanceof StreamEndEvent
+                    || event instanceof DocumentEndEvent) {
+                continue;
+            }
+            if (event instanceof DocumentStartEvent) {
+                if (++documents > 1) {
+                    throw new Unsupported();
+                }
+                continue;
+            }
+            if (event instanceof AliasEvent) {
+                throw new Unsupported();
+            }
+
+            if (event instanceof MappingEndEvent || event instanceof SequenceEndEvent) {
+                Frame done = stack.pop();
+                if (done.collect) {
+                    collecting = null;
+                }
+                Frame parent = stack.peek();
+                if (parent != null && parent.mapping) {
+                    parent.key = null;
+                }
+                continue;
+            }
+
+            Frame top = stack.peek();
+
+            // The document root must be a mapping of weapon/attachment IDs
+            if (top == null) {
+                if (!(event instanceof MappingStartEvent)) {
+                    throw new Unsupported();
+                }
+                stack.push(new Frame(true, null, false));
+                continue;
+            }
+
+            // Key position in a mapping
+            if (top.mapping && top.key == null) {
+                if (!(event instanceof ScalarEvent scalar)) {
+                    throw new Unsupported(); // Complex keys
+                }
+                String key = scalar.getValue();
+                if (key.equals("<<")) {
+                    throw new Unsupported(); // Merge keys
+                }
+                if (top.path == null) {
+                    // Root key: YamlConfiguration would split dotted keys into sections
+                    if (key.isEmpty() || key.indexOf('.') >= 0 || values.containsKey(key)) {
+                        throw new Unsupported();
+                    }
+                    rootKey = key;
+                    rootKeys.add(key);
+                    values.put(key, new LinkedHashMap<>());
+                }
+                top.key = key;
+                continue;
+            }
+
+            // Value position
+            String path;
+            if (top.mapping) {
+                path = top.path == null ? "" : (top.path.isEmpty() ? top.key : top.path + "." + top.key);
+            } else {
+                path = top.path;
+            }
+            boolean wanted = top.mapping && top.path != null && wantedPaths.contains(path);
+
+            if (event instanceof ScalarEvent scalar) {
+                if (top.collect) {
+                    collecting.add(String.valueOf(scalarValue(scalar)));
+                } else if (wanted) {
+                    if (values.get(rootKey).put(path, scalarValue(scalar)) != null) {
+                        throw new Unsupported();
+                    }
+                }
+                if (top.mapping) {
+                    top.key = null;
+                }
+            } else if (event instanceof SequenceStartEvent) {
+                if (top.collect) {
+                    throw new Unsupported(); // Nested list inside a wanted list
+                }
+                if (wanted) {
+                    collecting = new ArrayList<>();
+                    if (values.get(rootKey).put(path, collecting) != null) {
+                        throw new Unsupported();
+                    }
+                }
+                stack.push(new Frame(false, path, wanted));
+            } else if (event instanceof MappingStartEvent) {
+                if (top.collect || wanted) {
+                    throw new Unsupported(); // Wanted value is not a scalar/list of scalars
+                }
+                // Mappings inside lists are not addressable by path, keep them from matching
+                stack.push(new Frame(true, top.mapping ? path : path + "[]", false));
+            }
+        }
+
+        return new Result(rootKeys, values);
+    }
+
+    /**
+     * Type a wanted scalar like the full parser would. Only strings and plain
+     * decimal ints are handled; floats, booleans, nulls, octal ints, explicit
+     * tags etc. need the full parse.
+     */
+    private static Object scalarValue(ScalarEvent scalar) throws Unsupported {
+        String value = scalar.getValue();
+        if (scalar.getTag() != null && !scalar.getTag().equals("!")) {
+            throw new Unsupported();
+        }
+        if (!scalar.getImplicit().canOmitTagInPlainScalar()) {
+            return value; // Quoted or block scalar
+        }
+
+        Tag tag = RESOLVER.resolve(NodeId.scalar, value, true);
+        if (Tag.STR.equals(tag)) {
+            return value;
+        }
+        if (Tag.INT.equals(tag) && CANONICAL_INT.matcher(value).matches()) {
+            return Integer.valueOf(value);
+        }
+        throw new Unsupported();
+    }
+}
@@ -0,0 +1,98 @@
+package com.saratoga.loadouts.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeCursorTest {
+
+    private static final UUID OWNER = UUID.fromString("11111111-2222-3333-4444-555555555555");
+    private static final long GRACE = 10_000;
+
+    private ChangeCursor cursor;
+
+    @BeforeEach
+    void setUp() {
+        cursor = new ChangeCursor(GRACE);
+        cursor.reset(10);
+    }
+
+    private static List<DatabaseManager.LoadoutChange> changes(long... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(id -> new DatabaseManager.LoadoutChange(id, OWNER, "1", "SAVE", "other"))
+                .toList();
+    }
+
+    private static List<Long> ids(List<DatabaseManager.LoadoutChange> changes) {
+        return changes.stream().map(DatabaseManager.LoadoutChange::id).toList();
+    }
+
+    @Test
+    void contiguousChangesMoveThePosition() {
+        assertEquals(List.of(11L, 12L, 13L), ids(cursor.advance(changes(11, 12, 13), 1000)));
+        assertEquals(13, cursor.getPosition());
+        assertEquals(List.of(), cursor.advance(changes(), 2000));
+        assertEquals(13, cursor.getPosition());
+    }
+
+    @Test
+    void changesPastAGapAreAppliedOnce() {
+        assertEquals(List.of(11L, 13L, 14L), ids(cursor.advance(changes(11, 13, 14), 1000)));
+        assertEquals(11, cursor.getPosition());
+
+        // Polled again from the position, the same changes come back
+        assertEquals(List.of(), cursor.advance(changes(13, 14), 2000));
+        assertEquals(List.of(15L), ids(cursor.advance(changes(13, 14, 15), 3000)));
+        assertEquals(11, cursor.getPosition());
+    }
+
+    @Test
+    void filledGapMovesThePositionOverAppliedChanges() {
+        cursor.advance(changes(11, 13, 14), 1000);
+
+        // The transaction holding 12 commits late
+        assertEquals(List.of(12L), ids(cursor.advance(changes(12, 13, 14), 2000)));
+        assertEquals(14, cursor.getPosition());
+        assertEquals(List.of(15L), ids(cursor.advance(changes(15), 3000)));
+        assertEquals(15, cursor.getPosition());
+    }
+
+    @Test
+    void gapIsSkippedAfterTheGracePeriod() {
+        cursor.advance(changes(11, 13, 14), 1000);
+
+        cursor.advance(changes(13, 14), 1000 + GRACE);
+        assertEquals(11, cursor.getPosition()); // Still within the grace period
+
+        cursor.advance(changes(13, 14), 1000 + GRACE + 1);
+        assertEquals(14, cursor.getPosition());
+        assertEquals(List.of(15L), ids(cursor.advance(changes(15), 20_000)));
+        assertEquals(15, cursor.getPosition());
+    }
+
+    @Test
+    void graceRestartsAfterTheGapFills() {
+        cursor.advance(changes(11, 13), 1000);
+        cursor.advance(changes(12, 13), 2000);
+
+        // A new gap gets its own full grace period
+        cursor.advance(changes(15), 50_000);
+        cursor.advance(changes(15), 50_000 + GRACE);
+        assertEquals(13, cursor.getPosition());
+    }
+
+    @Test
+    void resetForgetsChangesPastAGap() {
+        cursor.advance(changes(11, 13), 1000);
+        cursor.reset(20);
+
+        assertEquals(20, cursor.getPosition());
+        assertEquals(List.of(21L), ids(cursor.advance(changes(21), 2000)));
+        assertEquals(21, cursor.getPosition());
+    }
+}
@@ -0,0 +1,179 @@
+package com.saratoga.loadouts.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteJournalTest {
+
+    private static final UUID OWNER = UUID.fromString("11111111-2222-3333-4444-555555555555");
+
+    @TempDir
+    Path dir;
+
+    private File file;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("pending-writes.journal").toFile();
+        logger = Logger.getAnonymousLogger();
+        logger.setLevel(Level.OFF);
+    }
+
+    private WriteJournal open() throws IOException {
+        WriteJournal journal = new WriteJournal(file, logger);
+        journal.open();
+        return journal;
+    }
+
+    private static Loadout loadout(String name, String displayName) {
+        Loadout loadout = new Loadout(7, OWNER, name, 1000L, 2000L);
+        loadout.setDisplayName(displayName);
+        loadout.setSlot("primary", new LoadoutSlot("primary", "AK-47", "rifles", true, 90));
+        loadout.setAttachment("scope", "Red_Dot");
+        loadout.setFinalItems(Arrays.asList(null, null));
+        loadout.setUpdatedAt(2000L);
+        return loadout;
+    }
+
+    @Test
+    void pendingWritesAreReplayedInOrder() throws IOException {
+        WriteJournal journal = open();
+        long save = journal.appendSave(loadout("1", "&aMain"));
+        long delete = journal.appendDelete(OWNER, "2");
+        journal.close();
+
+        List<WriteJournal.Entry> entries = open().getPendingEntries();
+        assertEquals(2, entries.size());
+
+        WriteJournal.Entry first = entries.get(0);
+        assertEquals(save, first.seq());
+        assertEquals(WriteJournal.EntryType.SAVE, first.type());
+        assertEquals("1", first.name());
+        Loadout replayed = first.loadout();
+        assertEquals(-1, replayed.getId());
+        assertEquals("&aMain", replayed.getDisplayName());
+        assertEquals(1000L, replayed.getCreatedAt());
+        assertEquals(2000L, replayed.getUpdatedAt());
+        assertEquals("AK-47", replayed.getSlot("primary").getWeaponTitle());
+        assertEquals(90, replayed.getSlot("primary").getAmmoAmount());
+        assertEquals("Red_Dot", replayed.getAttachment("scope"));
+        assertEquals(2, replayed.getFinalItems().size());
+
+        WriteJournal.Entry second = entries.get(1);
+        assertEquals(delete, second.seq());
+        assertEquals(WriteJournal.EntryType.DELETE, second.type());
+        assertEquals(OWNER, second.owner());
+        assertNull(second.loadout());
+    }
+
+    @Test
+    void completedWritesAreNotReplayed() throws IOException {
+        WriteJournal journal = open();
+        long first = journal.appendDelete(OWNER, "1");
+        long second = journal.appendDelete(OWNER, "2");
+        long third = journal.appendDelete(OWNER, "3");
+        journal.complete(second); // DONE record, others still pending
+        journal.close();
+
+        List<WriteJournal.Entry> entries = open().getPendingEntries();
+        assertEquals(List.of(first, third), entries.stream().map(WriteJournal.Entry::seq).toList());
+    }
+
+    @Test
+    void fileIsTruncatedOnceNothingIsPending() throws IOException {
+        WriteJournal journal = open();
+        long first = journal.appendDelete(OWNER, "1");
+        long second = journal.appendDelete(OWNER, "2");
+        journal.complete(first);
+        assertTrue(file.length() > 0);
+        journal.complete(second);
+        assertEquals(0, file.length());
+        assertEquals(0, journal.getPendingCount());
+    }
+
+    @Test
+    void sequenceNumbersContinueAfterReopen() throws IOException {
+        WriteJournal journal = open();
+        journal.appendDelete(OWNER, "1");
+        long last = journal.appendDelete(OWNER, "2");
+        journal.close();
+
+        assertTrue(open().appendDelete(OWNER, "3") > last);
+    }
+
+    @Test
+    void tornTailIsIgnoredAndCutOff() throws IOException {
+        WriteJournal journal = open();
+        long kept = journal.appendDelete(OWNER, "1");
+        long intact = file.length();
+        journal.appendDelete(OWNER, "2");
+        journal.close();
+        truncate(intact + 5); // Header of the second record is only half written
+
+        journal = open();
+        assertEquals(List.of(kept), seqs(journal));
+        assertEquals(intact, file.length());
+
+        // Records appended after the cut are readable on the next start
+        long appended = journal.appendDelete(OWNER, "3");
+        journal.close();
+        assertEquals(List.of(kept, appended), seqs(open()));
+    }
+
+    @Test
+    void partialPayloadIsIgnored() throws IOException {
+        WriteJournal journal = open();
+        long kept = journal.appendDelete(OWNER, "1");
+        journal.appendSave(loadout("2", null));
+        journal.close();
+        truncate(file.length() - 3);
+
+        assertEquals(List.of(kept), seqs(open()));
+    }
+
+    @Test
+    void checksumMismatchEndsTheReplay() throws IOException {
+        WriteJournal journal = open();
+        long kept = journal.appendDelete(OWNER, "1");
+        long corruptAt = file.length();
+        journal.appendDelete(OWNER, "2");
+        journal.appendDelete(OWNER, "3");
+        journal.close();
+
+        // Flip a byte in the payload of the second record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(corruptAt + 8 + 3);
+            int b = raf.read();
+            raf.seek(corruptAt + 8 + 3);
+            raf.write(b ^ 0xff);
+        }
+
+        journal = open();
+        assertEquals(List.of(kept), seqs(journal));
+        assertEquals(corruptAt, file.length());
+    }
+
+    private void truncate(long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private static List<Long> seqs(WriteJournal journal) {
+        return journal.getPendingEntries().stream().map(WriteJournal.Entry::seq).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.saratoga.loadouts.gui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuiSessionTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final double PER_SECOND = 4;
+    private static final int BURST = 3;
+
+    @Test
+    void burstIsAllowedThenRefused() {
+        GuiSession session = new GuiSession();
+        long now = 5 * SECOND;
+        for (int i = 0; i < BURST; i++) {
+            assertTrue(session.tryClick(now, PER_SECOND, BURST), "click " + i);
+        }
+        assertFalse(session.tryClick(now, PER_SECOND, BURST));
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        GuiSession session = new GuiSession();
+        long now = 0;
+        for (int i = 0; i < BURST; i++) {
+            session.tryClick(now, PER_SECOND, BURST);
+        }
+
+        // A token every quarter second
+        now += SECOND / 8;
+        assertFalse(session.tryClick(now, PER_SECOND, BURST));
+        now += SECOND / 8;
+        assertTrue(session.tryClick(now, PER_SECOND, BURST));
+        assertFalse(session.tryClick(now, PER_SECOND, BURST));
+    }
+
+    @Test
+    void refillIsCappedAtTheBurst() {
+        GuiSession session = new GuiSession();
+        long now = 0;
+        assertTrue(session.tryClick(now, PER_SECOND, BURST));
+
+        now += 60 * SECOND;
+        for (int i = 0; i < BURST; i++) {
+            assertTrue(session.tryClick(now, PER_SECOND, BURST), "click " + i);
+        }
+        assertFalse(session.tryClick(now, PER_SECOND, BURST));
+    }
+
+    @Test
+    void steadyClickingAtTheRateIsAllowed() {
+        GuiSession session = new GuiSession();
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            assertTrue(session.tryClick(now, PER_SECOND, BURST), "click " + i);
+            now += SECOND / 4;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.saratoga.loadouts.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentCompatibilityTest {
+
+    private static final AttachmentCompatibility COMPATIBILITY = AttachmentCompatibility.build(
+            List.of("Red_Dot", "ACOG", "Sniper_Scope", "Suppressor", "Rifle_Suppressor"),
+            Map.of(
+                    "scope", List.of("Sniper_Scope", "Red_Dot", "ACOG"),
+                    "muzzle", List.of("Suppressor", "Rifle_Suppressor", "Unknown_Muzzle")),
+            Map.of(
+                    "Sniper_Scope", List.of("AWP"),
+                    "ACOG", List.of("AK-47", "M4A1"),
+                    "Rifle_Suppressor", List.of("AK-47"),
+                    "Red_Dot", List.of()));
+
+    @Test
+    void weaponGetsUniversalAndItsOwnAttachments() {
+        assertEquals(List.of("ACOG", "Red_Dot"), COMPATIBILITY.filter(List.of("scope"), "AK-47"));
+        assertEquals(List.of("Red_Dot", "Sniper_Scope"), COMPATIBILITY.filter(List.of("scope"), "AWP"));
+        assertEquals(List.of("Rifle_Suppressor", "Suppressor"), COMPATIBILITY.filter(List.of("muzzle"), "AK-47"));
+        assertEquals(List.of("Suppressor"), COMPATIBILITY.filter(List.of("muzzle"), "M4A1"));
+    }
+
+    @Test
+    void unlistedWeaponGetsOnlyUniversalAttachments() {
+        assertEquals(List.of("Red_Dot"), COMPATIBILITY.filter(List.of("scope"), "Glock"));
+        assertEquals(List.of("Suppressor"), COMPATIBILITY.filter(List.of("muzzle"), "Glock"));
+    }
+
+    @Test
+    void nullWeaponDoesNotFilter() {
+        assertEquals(List.of("ACOG", "Red_Dot", "Sniper_Scope"), COMPATIBILITY.filter(List.of("scope"), null));
+    }
+
+    @Test
+    void categoriesAreCombinedAndMatchedInLowerCase() {
+        assertEquals(List.of("ACOG", "Red_Dot", "Rifle_Suppressor", "Suppressor"),
+                COMPATIBILITY.filter(List.of("SCOPE", "Muzzle"), "AK-47"));
+        assertEquals(List.of(), COMPATIBILITY.filter(List.of("grip"), "AK-47"));
+        assertEquals(List.of(), COMPATIBILITY.filter(List.of(), null));
+    }
+
+    @Test
+    void emptyCompatibilityFindsNothing() {
+        assertEquals(List.of(), AttachmentCompatibility.EMPTY.filter(List.of("scope"), "AK-47"));
+    }
+}
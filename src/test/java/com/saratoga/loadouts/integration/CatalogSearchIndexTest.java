@@ -0,0 +1,87 @@
+package com.saratoga.loadouts.integration;
+
+import com.saratoga.loadouts.integration.CatalogSearchIndex.Entry;
+import com.saratoga.loadouts.integration.CatalogSearchIndex.Kind;
+import com.saratoga.loadouts.integration.WeaponCatalog.AttachmentItemData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSearchIndexTest {
+
+    private static final CatalogSearchIndex INDEX = CatalogSearchIndex.build(
+            List.of("AK-47", "AK-74", "M4A1", "Desert_Eagle"),
+            Map.of("AK-47", "<gold>AK-47", "Desert_Eagle", "&cDeagle"),
+            List.of("Red_Dot", "ACOG"),
+            Map.of("Red_Dot", new AttachmentItemData("IRON_NUGGET", 1, "&aRed Dot Sight")));
+
+    private static List<String> ids(List<Entry> entries) {
+        return entries.stream().map(Entry::id).toList();
+    }
+
+    @Test
+    void shortQueriesMatchByPrefix() {
+        assertEquals(List.of("AK-47", "AK-74"), ids(INDEX.search("ak", Kind.WEAPON, 10)));
+        assertEquals(List.of("AK-47", "AK-74"), ids(INDEX.search("AK", Kind.WEAPON, 10)));
+        // Not a word prefix, and too short for the trigram index
+        assertEquals(List.of(), INDEX.search("4a", Kind.WEAPON, 10));
+    }
+
+    @Test
+    void wordsInsideIdsMatchByPrefix() {
+        assertEquals(List.of("Desert_Eagle"), ids(INDEX.search("eag", Kind.WEAPON, 10)));
+        assertEquals(List.of("AK-74"), ids(INDEX.search("74", Kind.WEAPON, 10)));
+    }
+
+    @Test
+    void longerQueriesMatchAnywhere() {
+        assertEquals(List.of("M4A1"), ids(INDEX.search("4a1", Kind.WEAPON, 10)));
+        assertEquals(List.of("Red_Dot"), ids(INDEX.search("ight", Kind.ATTACHMENT, 10)));
+        assertEquals(List.of(), INDEX.search("xyz", Kind.WEAPON, 10));
+    }
+
+    @Test
+    void displayNamesAreSearchedWithoutColorsOrTags() {
+        assertEquals(List.of("Desert_Eagle"), ids(INDEX.search("deag", Kind.WEAPON, 10)));
+        assertEquals(List.of("Red_Dot"), ids(INDEX.search("dot sight", Kind.ATTACHMENT, 10)));
+        assertEquals(List.of(), INDEX.search("gold", Kind.WEAPON, 10));
+        assertEquals(List.of(), INDEX.search("cdeag", Kind.WEAPON, 10));
+    }
+
+    @Test
+    void resultsAreLimitedToOneKind() {
+        assertEquals(List.of(), INDEX.search("red", Kind.WEAPON, 10));
+        assertEquals(List.of("Red_Dot"), ids(INDEX.search("red", Kind.ATTACHMENT, 10)));
+        assertEquals(Kind.ATTACHMENT, INDEX.search("acog", Kind.ATTACHMENT, 10).get(0).kind());
+    }
+
+    @Test
+    void exactIdThenPrefixThenSubstring() {
+        CatalogSearchIndex index = CatalogSearchIndex.build(
+                List.of("Trail_Gun", "Rail_Gun", "Rail"), Map.of(), List.of(), Map.of());
+
+        assertEquals(List.of("Rail", "Rail_Gun", "Trail_Gun"), ids(index.search("rail", Kind.WEAPON, 10)));
+        assertEquals(List.of("Rail", "Rail_Gun"), ids(index.search("rail", Kind.WEAPON, 2)));
+    }
+
+    @Test
+    void blankQueriesAndEmptyIndexFindNothing() {
+        assertEquals(List.of(), INDEX.search("  ", Kind.WEAPON, 10));
+        assertEquals(List.of(), INDEX.search("ak", Kind.WEAPON, 0));
+        assertEquals(List.of(), CatalogSearchIndex.EMPTY.search("ak", Kind.WEAPON, 10));
+        assertEquals(List.of(), CatalogSearchIndex.EMPTY.completeIds("", Kind.WEAPON, 10));
+    }
+
+    @Test
+    void completionOffersWholeIdsOnly() {
+        assertEquals(List.of("AK-47", "AK-74"), INDEX.completeIds("ak", Kind.WEAPON, 10));
+        assertEquals(List.of("AK-47"), INDEX.completeIds("ak", Kind.WEAPON, 1));
+        // Display names and inner words are searchable, but not completed
+        assertEquals(List.of(), INDEX.completeIds("deag", Kind.WEAPON, 10));
+        assertEquals(List.of(), INDEX.completeIds("eagle", Kind.WEAPON, 10));
+        assertEquals(List.of("ACOG", "Red_Dot"), INDEX.completeIds("", Kind.ATTACHMENT, 10));
+    }
+}
@@ -0,0 +1,142 @@
+package com.saratoga.loadouts.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanManifestTest {
+
+    private static final byte[] PAYLOAD = { 1, 2, 3, 4 };
+
+    @TempDir
+    Path dir;
+
+    private File manifestFile;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        manifestFile = dir.resolve("scan-manifest.bin").toFile();
+        logger = Logger.getAnonymousLogger();
+        logger.setLevel(Level.OFF);
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = dir.resolve(name).toFile();
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+        return file;
+    }
+
+    private static void record(ScanManifest manifest, File file) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        manifest.put(file, file.length(), file.lastModified(), content, PAYLOAD);
+    }
+
+    private ScanManifest reload() {
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        manifest.load();
+        return manifest;
+    }
+
+    @Test
+    void payloadSurvivesSaveAndLoad() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47:\n  Info: {}\n");
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        record(manifest, weapon);
+        manifest.save();
+
+        assertArrayEquals(PAYLOAD, reload().getIfUnchanged(weapon));
+        assertFalse(new File(manifestFile.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    void changedFileIsNotServed() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47:\n  Info: {}\n");
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        record(manifest, weapon);
+
+        Files.writeString(weapon.toPath(), "AK-47:\n  Info: {}\nM4A1:\n  Info: {}\n");
+        assertNull(manifest.getIfUnchanged(weapon));
+    }
+
+    @Test
+    void sameSizeEditIsCaughtByTheHash() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47: 1\n");
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        record(manifest, weapon);
+
+        Files.writeString(weapon.toPath(), "AK-74: 1\n");
+        assertTrue(weapon.setLastModified(weapon.lastModified() + 5000));
+        assertNull(manifest.getIfUnchanged(weapon));
+    }
+
+    @Test
+    void touchedFileIsServedByItsHash() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47: 1\n");
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        record(manifest, weapon);
+
+        assertTrue(weapon.setLastModified(weapon.lastModified() + 5000));
+        assertArrayEquals(PAYLOAD, manifest.getIfUnchanged(weapon));
+    }
+
+    @Test
+    void unscannedFilesUnderTheFolderAreDropped() throws IOException {
+        File kept = write("weapons/rifles.yml", "AK-47: 1\n");
+        File deleted = write("weapons/old/pistols.yml", "Glock: 1\n");
+        File attachment = write("attachments/scopes.yml", "Red_Dot: 1\n");
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        record(manifest, kept);
+        record(manifest, deleted);
+        record(manifest, attachment);
+
+        manifest.retainScanned(dir.resolve("weapons").toFile(), Set.of(kept.getAbsolutePath()));
+
+        assertNotNull(manifest.getIfUnchanged(kept));
+        assertNull(manifest.getIfUnchanged(deleted));
+        assertNotNull(manifest.getIfUnchanged(attachment)); // Other folder
+    }
+
+    @Test
+    void otherFormatVersionIsIgnored() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47: 1\n");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(manifestFile))) {
+            out.writeInt(1);
+            out.writeInt(0);
+        }
+        assertNull(reload().getIfUnchanged(weapon));
+    }
+
+    @Test
+    void truncatedManifestIsIgnored() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47: 1\n");
+        ScanManifest manifest = new ScanManifest(manifestFile, logger);
+        record(manifest, weapon);
+        manifest.save();
+        try (RandomAccessFile raf = new RandomAccessFile(manifestFile, "rw")) {
+            raf.setLength(raf.length() - 2);
+        }
+
+        assertNull(reload().getIfUnchanged(weapon));
+    }
+
+    @Test
+    void missingManifestMeansNothingIsKnown() throws IOException {
+        File weapon = write("weapons/rifles.yml", "AK-47: 1\n");
+        assertNull(reload().getIfUnchanged(weapon));
+    }
+}
@@ -0,0 +1,170 @@
+package com.saratoga.loadouts.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YamlKeyExtractorTest {
+
+    private static final YamlKeyExtractor EXTRACTOR = new YamlKeyExtractor(
+            Set.of("Reload.Ammo.Ammos", "Reload.Magazine_Size", "Info.Weapon_Item.Name"));
+
+    @Test
+    void extractsRootKeysAndWantedValues() {
+        YamlKeyExtractor.Result result = EXTRACTOR.extract("""
+                AK-47:
+                  Info:
+                    Weapon_Item:
+                      Type: IRON_HOE
+                      Name: "<gold>AK-47"
+                  Reload:
+                    Magazine_Size: 30
+                    Ammo:
+                      Ammos:
+                        - 762_Rifle
+                        - 762_Rifle_AP
+                M4A1:
+                  Reload:
+                    Magazine_Size: '30'
+                """);
+
+        assertNotNull(result);
+        assertEquals(List.of("AK-47", "M4A1"), result.rootKeys());
+
+        Map<String, Object> ak = result.values().get("AK-47");
+        assertEquals("<gold>AK-47", ak.get("Info.Weapon_Item.Name"));
+        assertEquals(30, ak.get("Reload.Magazine_Size"));
+        assertEquals(List.of("762_Rifle", "762_Rifle_AP"), ak.get("Reload.Ammo.Ammos"));
+        assertFalse(ak.containsKey("Info.Weapon_Item.Type")); // Not wanted
+
+        // Quoted scalars stay strings, like YamlConfiguration reads them
+        assertEquals("30", result.values().get("M4A1").get("Reload.Magazine_Size"));
+    }
+
+    @Test
+    void rootKeysWithoutWantedPathsHaveEmptyValues() {
+        YamlKeyExtractor.Result result = EXTRACTOR.extract("""
+                Knife:
+                  Melee: {}
+                Grenade: 1
+                """);
+
+        assertNotNull(result);
+        assertEquals(List.of("Knife", "Grenade"), result.rootKeys());
+        assertEquals(Map.of(), result.values().get("Knife"));
+        assertEquals(Map.of(), result.values().get("Grenade"));
+    }
+
+    @Test
+    void mappingsInsideListsDoNotMatchWantedPaths() {
+        YamlKeyExtractor.Result result = EXTRACTOR.extract("""
+                AK-47:
+                  Reload:
+                    - Magazine_Size: 5
+                """);
+
+        assertNotNull(result);
+        assertEquals(Map.of(), result.values().get("AK-47"));
+    }
+
+    @Test
+    void emptyDocumentHasNoKeys() {
+        YamlKeyExtractor.Result result = EXTRACTOR.extract("{}");
+        assertNotNull(result);
+        assertEquals(List.of(), result.rootKeys());
+    }
+
+    @Test
+    void aliasesNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("""
+                Base: &base
+                  Reload:
+                    Magazine_Size: 30
+                AK-47: *base
+                """));
+    }
+
+    @Test
+    void mergeKeysNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("""
+                Base: &base
+                  Info: {}
+                AK-47:
+                  <<: *base
+                """));
+        assertNull(EXTRACTOR.extract("""
+                AK-47:
+                  <<: {Info: {}}
+                """));
+    }
+
+    @Test
+    void dottedRootKeysNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("""
+                AK-47.Reload:
+                  Magazine_Size: 30
+                """));
+    }
+
+    @Test
+    void duplicateRootKeysNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("""
+                AK-47:
+                  Info: {}
+                AK-47:
+                  Reload: {}
+                """));
+    }
+
+    @Test
+    void severalDocumentsNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("""
+                AK-47:
+                  Info: {}
+                ---
+                M4A1:
+                  Info: {}
+                """));
+    }
+
+    @Test
+    void nonMappingRootNeedsAFullParse() {
+        assertNull(EXTRACTOR.extract("- AK-47\n- M4A1\n"));
+    }
+
+    @Test
+    void wantedValuesOfAnUnexpectedShapeNeedAFullParse() {
+        // Mapping where a scalar is wanted
+        assertNull(EXTRACTOR.extract("""
+                AK-47:
+                  Reload:
+                    Magazine_Size:
+                      Base: 30
+                """));
+        // Nested list in a wanted list
+        assertNull(EXTRACTOR.extract("""
+                AK-47:
+                  Reload:
+                    Ammo:
+                      Ammos:
+                        - [762_Rifle]
+                """));
+    }
+
+    @Test
+    void scalarsTypedOtherThanStringOrIntNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("AK-47:\n  Reload:\n    Magazine_Size: 30.5\n"));
+        assertNull(EXTRACTOR.extract("AK-47:\n  Reload:\n    Magazine_Size: true\n"));
+        assertNull(EXTRACTOR.extract("AK-47:\n  Reload:\n    Magazine_Size: 030\n"));
+        assertNull(EXTRACTOR.extract("AK-47:\n  Reload:\n    Magazine_Size: !!str 30\n"));
+    }
+
+    @Test
+    void syntaxErrorsNeedAFullParse() {
+        assertNull(EXTRACTOR.extract("AK-47:\n  Reload: [\n"));
+    }
+}